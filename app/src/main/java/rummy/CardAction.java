@@ -0,0 +1,27 @@
+package rummy;
+
+/**
+ * Moves of an auto-play script entry: the pile drawn from, then optionally a declaration
+ * (e.g. "STOCKPILE-12S-KNOCK").
+ */
+public enum CardAction {
+    DISCARD(null),
+    STOCKPILE(null),
+    RUMMY(Declaration.RUMMY),
+    GIN(Declaration.GIN),
+    KNOCK(Declaration.KNOCK),
+    NONE(null);
+
+    private final Declaration declaration;
+
+    CardAction(Declaration declaration) {
+        this.declaration = declaration;
+    }
+
+    /**
+     * @return The declaration this action makes, or null for a draw
+     */
+    public Declaration getDeclaration() {
+        return declaration;
+    }
+}
@@ -0,0 +1,49 @@
+package rummy;
+
+/**
+ * Console debug output of the game engine and the computer players.
+ * Enabled by default; setEnabled(false) silences it, e.g. for benchmarks and bulk simulation where
+ * printing would dominate the run time.
+ * Callers building expensive messages should check isEnabled first.
+ * Output is process-wide, so only the program running the tables switches it (Driver and
+ * ScenarioRunner from their debug_output property); a table never does, so tables sharing a JVM
+ * cannot silence or re-enable each other.
+ */
+public final class DebugLog {
+    private static volatile boolean enabled = true;
+
+    private DebugLog() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        DebugLog.enabled = enabled;
+    }
+
+    public static void println(String message) {
+        if (enabled) {
+            System.out.println(message);
+        }
+    }
+
+    public static void println() {
+        if (enabled) {
+            System.out.println();
+        }
+    }
+
+    public static void print(String message) {
+        if (enabled) {
+            System.out.print(message);
+        }
+    }
+
+    public static void printf(String format, Object... args) {
+        if (enabled) {
+            System.out.printf(format, args);
+        }
+    }
+}
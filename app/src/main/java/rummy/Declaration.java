@@ -0,0 +1,9 @@
+package rummy;
+
+/**
+ * Round-ending declarations, in priority order (a mode tries them in this order).
+ * The name is what the game log and the auto-play scripts use.
+ */
+public enum Declaration {
+    RUMMY, GIN, KNOCK
+}
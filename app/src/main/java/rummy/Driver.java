@@ -7,6 +7,7 @@ public class Driver {
 
     public static void main(String[] args) {
         final Properties properties = PropertiesLoader.loadPropertiesFile(DEFAULT_PROPERTIES_PATH);
+        DebugLog.setEnabled(Boolean.parseBoolean(properties.getProperty("debug_output", "true")));
         String logResult = new Rummy(properties).runApp();
         System.out.println("logResult = " + logResult);
     }
@@ -0,0 +1,60 @@
+package rummy;
+
+import ch.aplu.jcardgame.Hand;
+import rummy.metrics.GameMetrics;
+import rummy.simulation.CardMasks;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Best meld analysis of each hand seen during one turn or one round-end scoring.
+ * A hand is analyzed at most once per state: the cached analysis is reused for as long as the
+ * hand holds the same cards, and recomputed when a card was drawn or discarded in between.
+ * Not thread-safe; create one per turn on the game thread.
+ */
+public class MeldAnalysisContext {
+    private final Map<Hand, CachedAnalysis> analyses = new IdentityHashMap<>();
+    private int computedCount;
+
+    /**
+     * @return Best meld analysis of the hand in its current state
+     */
+    public MeldDetector.MeldAnalysis getAnalysis(Hand hand) {
+        long cards = CardMasks.toMask(hand);
+        CachedAnalysis cached = analyses.get(hand);
+        if (cached == null || cached.cards != cards) {
+            cached = new CachedAnalysis(cards, MeldDetector.findBestMelds(hand));
+            analyses.put(hand, cached);
+            computedCount++;
+            GameMetrics.MELD_CACHE_MISSES.increment();
+        } else {
+            GameMetrics.MELD_CACHE_HITS.increment();
+        }
+        return cached.analysis;
+    }
+
+    /**
+     * @return Deadwood value of the hand in its current state
+     */
+    public int getDeadwoodValue(Hand hand) {
+        return getAnalysis(hand).getDeadwoodValue();
+    }
+
+    /**
+     * @return Number of meld analyses this context actually ran
+     */
+    public int getComputedCount() {
+        return computedCount;
+    }
+
+    private static class CachedAnalysis {
+        final long cards;
+        final MeldDetector.MeldAnalysis analysis;
+
+        CachedAnalysis(long cards, MeldDetector.MeldAnalysis analysis) {
+            this.cards = cards;
+            this.analysis = analysis;
+        }
+    }
+}
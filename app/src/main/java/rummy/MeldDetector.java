@@ -2,6 +2,10 @@ package rummy;
 
 import ch.aplu.jcardgame.Card;
 import ch.aplu.jcardgame.Hand;
+import jdk.jfr.EventType;
+import rummy.jfr.MeldAnalysisEvent;
+import rummy.metrics.GameMetrics;
+import rummy.metrics.MetricsRegistry;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -10,6 +14,8 @@ import java.util.stream.Collectors;
  * Facade and Information Expert for meld detection and analysis.
  */
 public class MeldDetector {
+    // Checked before an analysis event is created, so no event is allocated while no recording wants one
+    private static final EventType MELD_ANALYSIS_EVENT_TYPE = EventType.getEventType(MeldAnalysisEvent.class);
 
     /**
      * Represents a meld (either a run or a set)
@@ -238,9 +244,7 @@ public class MeldDetector {
      * Finds the best combination of non-overlapping melds
      * Prioritises: 1) Maximum cards melded, 2) Minimum deadwood value
      */
-    private static List<Meld> findBestMeldCombination(List<Card> allCards, List<Meld> allMelds) {
-        List<List<Meld>> validCombinations = findAllValidCombinations(allMelds);
-
+    private static List<Meld> findBestMeldCombination(List<Card> allCards, List<List<Meld>> validCombinations) {
         if (validCombinations.isEmpty()) {
             return new ArrayList<>();
         }
@@ -289,6 +293,23 @@ public class MeldDetector {
      * Complete implementation
      */
     public static MeldAnalysis findBestMelds(Hand hand) {
+        long start = MetricsRegistry.start();
+        MeldAnalysisEvent event = MELD_ANALYSIS_EVENT_TYPE.isEnabled() ? new MeldAnalysisEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        MeldAnalysis analysis = analyzeMelds(hand, event);
+        if (event != null) {
+            event.commit();
+        }
+        GameMetrics.MELD_ANALYSIS.recordSince(start);
+        return analysis;
+    }
+
+    /**
+     * @param event Filled in with the search's sizes if it will be committed, null while not recording
+     */
+    private static MeldAnalysis analyzeMelds(Hand hand, MeldAnalysisEvent event) {
         List<Card> allCards = new ArrayList<>(hand.getCardList());
 
         // Find all possible melds
@@ -300,7 +321,13 @@ public class MeldDetector {
         allMelds.addAll(allRuns);
 
         // Find the best combination
-        List<Meld> bestMelds = findBestMeldCombination(allCards, allMelds);
+        List<List<Meld>> validCombinations = findAllValidCombinations(allMelds);
+        List<Meld> bestMelds = findBestMeldCombination(allCards, validCombinations);
+        if (event != null && event.shouldCommit()) {
+            event.handSize = allCards.size();
+            event.candidateMelds = allMelds.size();
+            event.combinationsExplored = validCombinations.size();
+        }
 
         // Calculate deadwood
         Set<Card> meldedCards = new HashSet<>();
@@ -323,35 +350,45 @@ public class MeldDetector {
      * Used for Rummy/Gin declaration validation
      */
     public static boolean allCardsFormedIntoMelds(Hand hand) {
-        MeldAnalysis analysis = findBestMelds(hand);
+        return allCardsFormedIntoMelds(findBestMelds(hand), hand.getNumberOfCards());
+    }
 
-        System.out.println("  MELD ANALYSIS DEBUG:");
-        System.out.println("    Total cards: " + hand.getNumberOfCards());
-        System.out.println("    Melded cards: " + analysis.getTotalMeldedCards());
-        System.out.println("    Deadwood cards: " + analysis.getDeadwood().size());
-        System.out.println("    Deadwood value: " + analysis.getDeadwoodValue());
-
-        for (int i = 0; i < analysis.getMelds().size(); i++) {
-            Meld meld = analysis.getMelds().get(i);
-            System.out.println("    Meld " + i + " (" + meld.getType() + "): " +
-                    meld.getCards().stream().map(c -> {
-                        Rank rank = (Rank) c.getRank();
-                        Suit suit = (Suit) c.getSuit();
-                        return rank.getCardLog() + suit.getSuitShortHand();
-                    }).collect(Collectors.joining(",")));
-        }
+    /**
+     * Checks if all cards of an analyzed hand form valid melds
+     *
+     * @param analysis Best meld analysis of the hand
+     * @param cardCount Number of cards in the hand
+     */
+    public static boolean allCardsFormedIntoMelds(MeldAnalysis analysis, int cardCount) {
+        if (DebugLog.isEnabled()) {
+            DebugLog.println("  MELD ANALYSIS DEBUG:");
+            DebugLog.println("    Total cards: " + cardCount);
+            DebugLog.println("    Melded cards: " + analysis.getTotalMeldedCards());
+            DebugLog.println("    Deadwood cards: " + analysis.getDeadwood().size());
+            DebugLog.println("    Deadwood value: " + analysis.getDeadwoodValue());
+
+            for (int i = 0; i < analysis.getMelds().size(); i++) {
+                Meld meld = analysis.getMelds().get(i);
+                DebugLog.println("    Meld " + i + " (" + meld.getType() + "): " +
+                        meld.getCards().stream().map(c -> {
+                            Rank rank = (Rank) c.getRank();
+                            Suit suit = (Suit) c.getSuit();
+                            return rank.getCardLog() + suit.getSuitShortHand();
+                        }).collect(Collectors.joining(",")));
+            }
 
-        if (!analysis.getDeadwood().isEmpty()) {
-            System.out.println("    Deadwood: " +
-                    analysis.getDeadwood().stream().map(c -> {
-                        Rank rank = (Rank) c.getRank();
-                        Suit suit = (Suit) c.getSuit();
-                        return rank.getCardLog() + suit.getSuitShortHand();
-                    }).collect(Collectors.joining(",")));
+            if (!analysis.getDeadwood().isEmpty()) {
+                DebugLog.println("    Deadwood: " +
+                        analysis.getDeadwood().stream().map(c -> {
+                            Rank rank = (Rank) c.getRank();
+                            Suit suit = (Suit) c.getSuit();
+                            return rank.getCardLog() + suit.getSuitShortHand();
+                        }).collect(Collectors.joining(",")));
+            }
         }
 
         boolean result = analysis.getDeadwood().isEmpty();
-        System.out.println("    Can declare RUMMY: " + result);
+        DebugLog.println("    Can declare RUMMY: " + result);
         return result;
     }
 
@@ -366,6 +403,16 @@ public class MeldDetector {
         return allCardsFormedIntoMelds(hand);
     }
 
+    /**
+     * Checks if an analyzed hand can declare Rummy
+     *
+     * @param analysis Best meld analysis of the hand
+     * @param cardCount Number of cards in the hand
+     */
+    public static boolean canDeclareRummy(MeldAnalysis analysis, int cardCount) {
+        return allCardsFormedIntoMelds(analysis, cardCount);
+    }
+
     /**
      * Checks if a player can declare Gin (all cards form melds, zero deadwood)
      * In Gin Rummy, this is the same as Rummy but with explicit zero deadwood check
@@ -374,12 +421,21 @@ public class MeldDetector {
      * @return true if all cards form melds with zero deadwood
      */
     public static boolean canDeclareGin(Hand hand) {
-        if (!allCardsFormedIntoMelds(hand)) {
+        return canDeclareGin(findBestMelds(hand), hand.getNumberOfCards());
+    }
+
+    /**
+     * Checks if an analyzed hand can declare Gin
+     *
+     * @param analysis Best meld analysis of the hand
+     * @param cardCount Number of cards in the hand
+     */
+    public static boolean canDeclareGin(MeldAnalysis analysis, int cardCount) {
+        if (!allCardsFormedIntoMelds(analysis, cardCount)) {
             return false;
         }
 
         // Double-check deadwood is actually zero
-        MeldAnalysis analysis = findBestMelds(hand);
         return analysis.getDeadwoodValue() == 0;
     }
 
@@ -403,7 +459,15 @@ public class MeldDetector {
      * @return String describing the melds (e.g., "3 melds, 7 deadwood points")
      */
     public static String getMeldSummary(Hand hand) {
-        MeldAnalysis analysis = findBestMelds(hand);
+        return getMeldSummary(findBestMelds(hand));
+    }
+
+    /**
+     * Gets a description of the melds of an analyzed hand
+     *
+     * @param analysis Best meld analysis of the hand
+     */
+    public static String getMeldSummary(MeldAnalysis analysis) {
         int meldCount = analysis.getMelds().size();
         int meldedCards = analysis.getTotalMeldedCards();
         int deadwoodValue = analysis.getDeadwoodValue();
@@ -2,6 +2,10 @@ package rummy;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Properties;
 
 public class PropertiesLoader {
@@ -18,4 +22,19 @@ public class PropertiesLoader {
         }
         return null;
     }
+
+    /**
+     * Loads a properties file from the file system
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static Properties loadPropertiesFile(Path propertiesFile) {
+        try (Reader reader = Files.newBufferedReader(propertiesFile)) {
+            Properties prop = new Properties();
+            prop.load(reader);
+            return prop;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot load properties file " + propertiesFile, ex);
+        }
+    }
 }
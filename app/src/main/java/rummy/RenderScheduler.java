@@ -0,0 +1,60 @@
+package rummy;
+
+import ch.aplu.jcardgame.Hand;
+import rummy.metrics.GameMetrics;
+import rummy.metrics.MetricsRegistry;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Coalesces hand and pile redraws into at most one batch per frame.
+ * A changed hand is marked dirty; the dirty hands are drawn together once a frame interval has
+ * passed since the previous batch, so a hand changed several times within a frame is drawn once.
+ * flush() draws whatever is still pending, before anything that must show the table up to date
+ * (a pause, a human move, the end of a round).
+ * Thread-safe: the pile listeners mark piles dirty from the game grid's thread.
+ */
+public class RenderScheduler {
+    private final long frameNanos;
+    private final Set<Hand> dirty = new LinkedHashSet<>();
+    private long nextFrame = System.nanoTime();
+
+    /**
+     * @param fps Maximum number of batches per second, 0 to draw every change at once
+     */
+    public RenderScheduler(int fps) {
+        this.frameNanos = fps > 0 ? 1_000_000_000L / fps : 0;
+    }
+
+    /**
+     * Marks a hand as changed, drawing the pending hands if a frame is due
+     */
+    public synchronized void markDirty(Hand hand) {
+        if (!dirty.add(hand)) {
+            GameMetrics.COALESCED_REDRAWS.increment();
+        }
+        if (System.nanoTime() - nextFrame >= 0) {
+            drawPending();
+        }
+    }
+
+    /**
+     * Draws the pending hands now
+     */
+    public synchronized void flush() {
+        if (!dirty.isEmpty()) {
+            drawPending();
+        }
+    }
+
+    private void drawPending() {
+        long start = MetricsRegistry.start();
+        for (Hand hand : dirty) {
+            hand.draw();
+        }
+        dirty.clear();
+        GameMetrics.RENDERING.recordSince(start);
+        nextFrame = System.nanoTime() + frameNanos;
+    }
+}
@@ -2,9 +2,24 @@ package rummy;
 
 import ch.aplu.jcardgame.*;
 import ch.aplu.jgamegrid.*;
+import jdk.jfr.EventType;
+import rummy.jfr.DeclarationEvent;
+import rummy.jfr.RoundEndEvent;
+import rummy.jfr.TurnEvent;
+import rummy.mcts.AnytimeComputerPlayer;
+import rummy.mcts.EndgameSolver;
+import rummy.mcts.InformationSet;
+import rummy.mcts.KnockAdvisor;
+import rummy.mcts.MctsComputerPlayer;
+import rummy.metrics.GameMetrics;
+import rummy.metrics.MetricsRegistry;
+import rummy.metrics.TableStatus;
+import rummy.simulation.CardMasks;
+import rummy.smartcomputer.CardTracker;
 import rummy.smartcomputer.SmartComputerPlayer;
 import rummy.strategy.GameModeStrategy;
 import rummy.strategy.GameModeStrategyFactory;
+import rummy.strategy.RoundState;
 
 import java.awt.*;
 import java.util.*;
@@ -20,15 +35,25 @@ import java.util.stream.Collectors;
  *   - MeldDetector: Meld analysis and validation
  *   - GameModeStrategy: Mode-specific rules and scoring
  *   - SmartComputerPlayer: AI decision-making
+ *   - MctsComputerPlayer: search-based AI decision-making
+ *   - EndgameSolver: alpha-beta search once few cards are unknown
  * - Manages UI updates and user feedback
+ *
+ * With the headless property set no window, buttons, labels or hand layouts are created and
+ * nothing is drawn or paused; the game logic and its log are unchanged. Every human move must then
+ * be scripted. jcardgame's Deck still builds its card actors and sprites, so a display (or a
+ * virtual one such as Xvfb) is needed in both modes.
  */
-@SuppressWarnings("serial")
-public class Rummy extends CardGame {
+public class Rummy {
     // ===== Strategy Pattern =====
     private final GameModeStrategy strategy;
+    // Declaration state of the current round (the strategy itself is shared and stateless)
+    private final RoundState roundState = new RoundState();
 
     static public final int seed = 30008;
-    static final Random random = new Random(seed);
+
+    // Per table, so a scenario deals the same cards whichever tables ran before it in the JVM
+    private final Random random = new Random(seed);
     private final Properties properties;
     private final StringBuilder logResult = new StringBuilder();
     private final List<List<String>> playerAutoMovements = new ArrayList<>();
@@ -38,7 +63,9 @@ public class Rummy extends CardGame {
     public int nbStartCards;
     private final int thinkingTime;
 
-    private final Deck deck = new Deck(Suit.values(), Rank.values(), "cover");
+    // Game window, null in headless mode
+    private final CardGame window;
+    private final Deck deck;
     private final Location[] handLocations = {
             new Location(350, 75),
             new Location(350, 625),
@@ -47,17 +74,17 @@ public class Rummy extends CardGame {
     private Hand pack;
     private Hand discard;
 
-    // === Buttons ===
-    private final GGButton endTurnActor = new GGButton("sprites/end.gif", false);
+    // === Buttons (only created with the window) ===
+    private GGButton endTurnActor;
     private final Location endTurnLocation = new Location(80, 610);
 
     // Classic Rummy button
-    private final GGButton rummyActor = new GGButton("sprites/rummy.gif", false);
+    private GGButton rummyActor;
     private final Location rummyLocation = new Location(80, 650);
 
     // Gin & Knock buttons (aligned and spaced)
-    private final GGButton ginActor   = new GGButton("sprites/gin.gif", false);
-    private final GGButton knockActor = new GGButton("sprites/knock.gif", false);
+    private GGButton ginActor;
+    private GGButton knockActor;
 
     // Keep them aligned horizontally and same height as Rummy
     private final Location ginLocation   = new Location(80, 570);
@@ -65,6 +92,14 @@ public class Rummy extends CardGame {
 
     // Smart Computer Player
     private final SmartComputerPlayer smartPlayer;
+    // MCTS Computer Player (only created when enabled)
+    private final MctsComputerPlayer mctsPlayer;
+    private final EndgameSolver endgameSolver;
+    private final KnockAdvisor knockAdvisor;
+    // Knock threshold used by computer players in Gin mode (from the smart player's configuration)
+    private final int knockThreshold;
+    // What each player has seen this round
+    private final CardTracker[] cardTrackers = {new CardTracker(0), new CardTracker(1)};
 
     private final Location packLocation = new Location(75, 350);
     private final Location discardLocation = new Location(625, 350);
@@ -81,15 +116,9 @@ public class Rummy extends CardGame {
             new Location(575, 625),
     };
 
-    enum CardAction {
-        DISCARD,
-        STOCKPILE,
-        RUMMY,
-        GIN,
-        KNOCK,
-        NONE
-    }
     private final TextActor[] scoreActors = {null, null};
+    // Score shown by each score actor, -1 while it still shows the initial text
+    private final int[] displayedScores = {-1, -1};
     private final TextActor[] pileNameActors = {null, null, null, null};
 
     Font bigFont = new Font("Arial", Font.BOLD, 36);
@@ -108,6 +137,12 @@ public class Rummy extends CardGame {
         setStatusText(string);
     }
 
+    private void setStatusText(String text) {
+        if (window != null) {
+            window.setStatusText(text);
+        }
+    }
+
     private final int[] scores = new int[nbPlayers];
 
     private final int[] autoIndexHands = new int[nbPlayers];
@@ -115,31 +150,46 @@ public class Rummy extends CardGame {
 
     private Card selected;
     private Card drawnCard;
+    // Checked before a turn event is created, so no event is allocated while no recording wants one
+    private static final EventType TURN_EVENT_TYPE = EventType.getEventType(TurnEvent.class);
+    // Flight recorder event of the turn in progress, null while turns are not recorded
+    private TurnEvent turnEvent;
+    // Live status shown by the metrics endpoint
+    private final TableStatus tableStatus;
+    // Batches hand and pile redraws
+    private final RenderScheduler renderScheduler;
     private boolean isEndingTurn = false;
+    // Set by close(), possibly from another thread
+    private volatile boolean isClosed = false;
 
     private boolean stockExhaustedThisRound = false;
 
     // ===== Score UI =====
     private void initScore() {
+        if (window == null) return;
         for (int i = 0; i < nbPlayers; i++) {
             String text = "[P" + i + ": " + scores[i] + "]";
-            scoreActors[i] = new TextActor(text, Color.WHITE, bgColor, bigFont);
-            addActor(scoreActors[i], scoreLocations[i]);
+            scoreActors[i] = new TextActor(text, Color.WHITE, window.getBgColor(), bigFont);
+            window.addActor(scoreActors[i], scoreLocations[i]);
         }
 
-        pileNameActors[0] = new TextActor("Computer", Color.WHITE, bgColor, smallFont);
-        addActor(pileNameActors[0], pileNameLocations[0]);
+        pileNameActors[0] = new TextActor("Computer", Color.WHITE, window.getBgColor(), smallFont);
+        window.addActor(pileNameActors[0], pileNameLocations[0]);
 
-        pileNameActors[1] = new TextActor("Human", Color.WHITE, bgColor, smallFont);
-        addActor(pileNameActors[1], pileNameLocations[1]);
+        pileNameActors[1] = new TextActor("Human", Color.WHITE, window.getBgColor(), smallFont);
+        window.addActor(pileNameActors[1], pileNameLocations[1]);
     }
 
     private void updateScore(int player) {
-        removeActor(scoreActors[player]);
+        if (window == null) return;
         int displayScore = Math.max(scores[player], 0);
+        if (displayScore == displayedScores[player]) return;
+
+        window.removeActor(scoreActors[player]);
         String text = "P" + player + "[" + displayScore + "]";
-        scoreActors[player] = new TextActor(text, Color.WHITE, bgColor, bigFont);
-        addActor(scoreActors[player], scoreLocations[player]);
+        scoreActors[player] = new TextActor(text, Color.WHITE, window.getBgColor(), bigFont);
+        window.addActor(scoreActors[player], scoreLocations[player]);
+        displayedScores[player] = displayScore;
     }
 
     private void initScores() {
@@ -149,28 +199,31 @@ public class Rummy extends CardGame {
     // ===== Piles =====
     private void setupPiles() {
         discard = new Hand(deck);
+        if (window == null) return;
+
         int pileWidth = 40;
         RowLayout discardLayout = new RowLayout(discardLocation, pileWidth);
         discardLayout.setRotationAngle(270);
-        discard.setView(this, discardLayout);
+        discard.setView(window, discardLayout);
         discard.draw();
-        TextActor discardNameActor = new TextActor("Discard Pile", Color.WHITE, bgColor, smallFont);
-        addActor(discardNameActor, discardNameLocation);
+        TextActor discardNameActor = new TextActor("Discard Pile", Color.WHITE, window.getBgColor(), smallFont);
+        window.addActor(discardNameActor, discardNameLocation);
 
         RowLayout packLayout = new RowLayout(packLocation, pileWidth);
         packLayout.setRotationAngle(90);
-        pack.setView(this, packLayout);
+        pack.setView(window, packLayout);
         pack.draw();
-        TextActor packNameActor = new TextActor("Stockpile", Color.WHITE, bgColor, smallFont);
-        addActor(packNameActor, packNameLocation);
+        TextActor packNameActor = new TextActor("Stockpile", Color.WHITE, window.getBgColor(), smallFont);
+        window.addActor(packNameActor, packNameLocation);
 
         discard.addCardListener(new CardAdapter() {
             @Override
             public void leftDoubleClicked(Card card) {
                 drawnCard = card;
                 discard.remove(drawnCard, true);
+                recordDraw(HUMAN_PLAYER_INDEX, drawnCard, true);
                 discard.setTouchEnabled(false);
-                discard.draw();
+                render(discard);
             }
         });
 
@@ -179,8 +232,9 @@ public class Rummy extends CardGame {
             public void leftDoubleClicked(Card card) {
                 drawnCard = card;
                 pack.remove(drawnCard, true);
+                recordDraw(HUMAN_PLAYER_INDEX, drawnCard, false);
                 pack.setTouchEnabled(false);
-                pack.draw();
+                render(pack);
             }
         });
     }
@@ -217,10 +271,26 @@ public class Rummy extends CardGame {
         }
         arrangeStockpile();
 
+        if (window != null) {
+            setupRoundView();
+        }
+
+        for (int i = 0; i < nbPlayers; i++) {
+            cardTrackers[i].startRound(hands[i], hands[(i + 1) % nbPlayers].getNumberOfCards());
+            smartPlayer.rateOpeningHand(hands[i], strategy.usesDeclaration(Declaration.GIN));
+        }
+
+        setupPiles();
+    }
+
+    /**
+     * Lays out the hands and the playing area of a new round and listens to the human's hand
+     */
+    private void setupRoundView() {
         Hand playingArea = new Hand(deck);
 
         int cardWidth = 40;
-        playingArea.setView(this, new RowLayout(playingLocation, (playingArea.getNumberOfCards() + 3) * cardWidth));
+        playingArea.setView(window, new RowLayout(playingLocation, (playingArea.getNumberOfCards() + 3) * cardWidth));
         playingArea.draw();
 
         // Set up human player for interaction
@@ -239,17 +309,18 @@ public class Rummy extends CardGame {
             int handWidth = 400;
             layouts[i] = new RowLayout(handLocations[i], handWidth);
             layouts[i].setRotationAngle(i);
-            hands[i].setView(this, layouts[i]);
+            hands[i].setView(window, layouts[i]);
             hands[i].setTargetArea(new TargetArea(playingLocation));
             hands[i].draw();
         }
-
-        setupPiles();
     }
 
     private void setupButtons() {
+        if (window == null) return;
+
         // Setup End Turn button (mode-agnostic)
-        addActor(endTurnActor, endTurnLocation);
+        endTurnActor = new GGButton(SpriteAssets.END_TURN, false);
+        window.addActor(endTurnActor, endTurnLocation);
         endTurnActor.addButtonListener(new GGButtonListener() {
             @Override public void buttonPressed(GGButton ggButton) { isEndingTurn = true; }
             @Override public void buttonReleased(GGButton ggButton) { }
@@ -268,21 +339,25 @@ public class Rummy extends CardGame {
      * Strategy will control visibility
      */
     private void setupDeclarationButtons() {
+        rummyActor = new GGButton(SpriteAssets.RUMMY, false);
+        ginActor = new GGButton(SpriteAssets.GIN, false);
+        knockActor = new GGButton(SpriteAssets.KNOCK, false);
+
         // Rummy Button (Classic mode)
-        addActor(rummyActor, rummyLocation);
+        window.addActor(rummyActor, rummyLocation);
         rummyActor.addButtonListener(new GGButtonListener() {
             @Override public void buttonPressed(GGButton ggButton) {
-                handleDeclaration("RUMMY");
+                handleDeclaration(Declaration.RUMMY);
             }
             @Override public void buttonReleased(GGButton ggButton) { }
             @Override public void buttonClicked(GGButton ggButton) { }
         });
 
         // Gin Button (Gin mode)
-        addActor(ginActor, ginLocation);
+        window.addActor(ginActor, ginLocation);
         ginActor.addButtonListener(new GGButtonListener() {
             @Override public void buttonPressed(GGButton ggButton) {
-                handleDeclaration("GIN");
+                handleDeclaration(Declaration.GIN);
             }
             @Override public void buttonReleased(GGButton ggButton) { }
             @Override public void buttonClicked(GGButton ggButton) { }
@@ -290,10 +365,10 @@ public class Rummy extends CardGame {
 
 
         // Knock Button (Gin mode)
-        addActor(knockActor, knockLocation);
+        window.addActor(knockActor, knockLocation);
         knockActor.addButtonListener(new GGButtonListener() {
             @Override public void buttonPressed(GGButton ggButton) {
-                handleDeclaration("KNOCK");
+                handleDeclaration(Declaration.KNOCK);
             }
             @Override public void buttonReleased(GGButton ggButton) { }
             @Override public void buttonClicked(GGButton ggButton) { }
@@ -306,7 +381,7 @@ public class Rummy extends CardGame {
      */
     public void showRummyButton(boolean show) {
         if (rummyActor == null) {
-            System.out.println("WARNING: rummyActor is null");
+            DebugLog.println("WARNING: rummyActor is null");
             return;
         }
 
@@ -325,7 +400,7 @@ public class Rummy extends CardGame {
      */
     public void showGinButtons(boolean show) {
         if (ginActor == null || knockActor == null) {
-            System.out.println("WARNING: ginActor or knockActor is null");
+            DebugLog.println("WARNING: ginActor or knockActor is null");
             return;
         }
 
@@ -343,36 +418,54 @@ public class Rummy extends CardGame {
     /**
      * Unified declaration handler - delegates to strategy
      */
-    private void handleDeclaration(String declarationType) {
-        boolean isValid = strategy.validateDeclaration(hands[1], 1, declarationType);
+    private void handleDeclaration(Declaration declaration) {
+        boolean isValid = validateDeclaration(hands[1], 1, declaration, new MeldAnalysisContext());
 
         if (!isValid) {
-            setStatus("Invalid " + declarationType + " declaration");
+            setStatus("Invalid " + declaration + " declaration");
         }
 
         // Always end turn after declaration attempt
         isEndingTurn = true;
     }
 
+    /**
+     * Validates a declaration through the strategy, reporting it as a flight recorder event
+     */
+    private boolean validateDeclaration(Hand hand, int player, Declaration declaration, MeldAnalysisContext context) {
+        DeclarationEvent event = new DeclarationEvent();
+        event.begin();
+        boolean isValid = strategy.validateDeclaration(hand, player, declaration, roundState, context);
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = player;
+            event.type = declaration.name();
+            event.valid = isValid;
+            event.deadwood = context.getDeadwoodValue(hand);
+            event.commit();
+        }
+        return isValid;
+    }
+
     /**
      * Enable/disable declaration buttons based on current strategy
      */
     private void enableDeclarationButtons(boolean enable) {
-        if (strategy.usesDeclarationType("RUMMY")) {
+        if (strategy.usesDeclaration(Declaration.RUMMY)) {
             rummyActor.setMouseTouchEnabled(enable);
         }
 
-        if (strategy.usesDeclarationType("GIN")) {
+        if (strategy.usesDeclaration(Declaration.GIN)) {
             ginActor.setMouseTouchEnabled(enable);
         }
 
-        if (strategy.usesDeclarationType("KNOCK")) {
+        if (strategy.usesDeclaration(Declaration.KNOCK)) {
             knockActor.setMouseTouchEnabled(enable);
         }
     }
 
     // ===== Helpers =====
-    public static Card randomCard(ArrayList<Card> list) {
+    private Card randomCard(ArrayList<Card> list) {
         int x = random.nextInt(list.size());
         return list.get(x);
     }
@@ -483,7 +576,13 @@ public class Rummy extends CardGame {
      * Logging Logic
      */
 
-    private void addCardPlayedToLog(int player, Card discardCard, Card pickupCard, String action) {
+    private void addCardPlayedToLog(int player, Card discardCard, Card pickupCard, Declaration action) {
+        if (turnEvent != null && turnEvent.shouldCommit()) {
+            turnEvent.player = player;
+            turnEvent.drawnCard = cardDescriptionForLog(pickupCard);
+            turnEvent.discardedCard = cardDescriptionForLog(discardCard);
+            turnEvent.declaration = action == null ? null : action.name();
+        }
         logResult.append("P").append(player).append("-");
         logResult.append(cardDescriptionForLog(pickupCard)).append("-");
         logResult.append(cardDescriptionForLog(discardCard));
@@ -551,44 +650,113 @@ public class Rummy extends CardGame {
     }
 
     private Card processTopCardFromPile(Hand pile, Hand hand) {
-        delay(thinkingTime);
+        pause(thinkingTime);
+        return takeTopCardFromPile(pile, hand);
+    }
+
+    private Card takeTopCardFromPile(Hand pile, Hand hand) {
+        long start = MetricsRegistry.start();
         Card card = dealTopCard(pile);
         pile.remove(card, false);
-        pile.draw();
+        render(pile);
+        recordDraw(handOwner(hand), card, pile == discard);
         hand.insert(card, false);
         sortHand(hand);
-        hand.draw();
+        render(hand);
+        GameMetrics.DRAW.recordSince(start);
         return card;
     }
 
     private void discardCardFromHand(Card card, Hand hand) {
-        System.out.println("DISCARD DEBUG: Removing " + cardDescriptionForLog(card));
-        System.out.println("  Hand size before: " + hand.getNumberOfCards());
+        DebugLog.println("DISCARD DEBUG: Removing " + cardDescriptionForLog(card));
+        DebugLog.println("  Hand size before: " + hand.getNumberOfCards());
 
         // Use hand.remove() instead of card.removeFromHand()
         boolean removed = hand.remove(card, false);
-        System.out.println("  Successfully removed: " + removed);
-        System.out.println("  Hand size after removal: " + hand.getNumberOfCards());
+        for (CardTracker tracker : cardTrackers) {
+            tracker.recordDiscard(handOwner(hand), card);
+        }
+        DebugLog.println("  Successfully removed: " + removed);
+        DebugLog.println("  Hand size after removal: " + hand.getNumberOfCards());
 
         discard.insert(card, false);
-        discard.draw();
-        hand.draw();
+        render(discard);
+        render(hand);
 
-        System.out.println("  Final hand size: " + hand.getNumberOfCards());
+        DebugLog.println("  Final hand size: " + hand.getNumberOfCards());
+    }
+
+    /**
+     * Tells every player's card tracker about a draw (after the card left its pile)
+     */
+    private void recordDraw(int player, Card card, boolean fromDiscard) {
+        if (turnEvent != null && turnEvent.shouldCommit()) {
+            turnEvent.action = (fromDiscard ? CardAction.DISCARD : CardAction.STOCKPILE).name();
+        }
+        Card passedCard = !fromDiscard && !discard.isEmpty() ? dealTopCard(discard) : null;
+        for (CardTracker tracker : cardTrackers) {
+            tracker.recordDraw(player, card, fromDiscard, passedCard);
+        }
+    }
+
+    private int handOwner(Hand hand) {
+        for (int i = 0; i < nbPlayers; i++) {
+            if (hands[i] == hand) return i;
+        }
+        throw new IllegalArgumentException("Hand does not belong to a player");
+    }
+
+    private void delayUntil(long deadlineNanos) {
+        long remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000L;
+        if (remainingMillis > 0) {
+            pause(remainingMillis);
+        }
+    }
+
+    /**
+     * Delays a computer or auto-played move, timing the pause in the delay metrics
+     */
+    private void pause(long millis) {
+        if (window == null) return;
+        if (millis > 0) {
+            renderScheduler.flush();
+        }
+        long start = MetricsRegistry.start();
+        GameGrid.delay(millis);
+        GameMetrics.DELAY.recordSince(start);
+    }
+
+    /**
+     * Schedules a redraw of a hand or pile
+     */
+    private void render(Hand hand) {
+        if (window == null) return;
+        renderScheduler.markDirty(hand);
     }
 
     private void waitingForHumanToSelectCard(Hand hand) {
+        renderScheduler.flush();
         hand.setTouchEnabled(true);
 
         selected = null;
-        while (null == selected) delay(delayTime);
+        while (null == selected) waitForHuman();
         hand.setTouchEnabled(false);
     }
 
+    /**
+     * Waits one polling interval for a human move, giving up once the table has been closed
+     */
+    private void waitForHuman() {
+        GameGrid.delay(delayTime);
+        if (isClosed) {
+            throw new IllegalStateException("Table closed while waiting for a human move");
+        }
+    }
+
     private void drawCardToHand(Hand hand) {
         hand.insert(drawnCard, false);
         sortHand(hand);
-        hand.draw();
+        render(hand);
     }
 
     private void setTouchEnableIfNotNull(Hand hand) {
@@ -598,25 +766,27 @@ public class Rummy extends CardGame {
     }
 
     private void waitingForHumanToSelectPile(Hand pile1, Hand pile2) {
+        renderScheduler.flush();
         setTouchEnableIfNotNull(pile1);
         setTouchEnableIfNotNull(pile2);
         drawnCard = null;
-        while (null == drawnCard) delay(delayTime);
+        while (null == drawnCard) waitForHuman();
     }
 
     private void waitingForHumanToEndTurn() {
+        renderScheduler.flush();
         endTurnActor.setMouseTouchEnabled(true);
         isEndingTurn = false;
 
         while (!isEndingTurn) {
-            delay(delayTime);
+            waitForHuman();
         }
 
         endTurnActor.setMouseTouchEnabled(false);
     }
 
     public Card getRandomCard(Hand hand) {
-        delay(thinkingTime);
+        pause(thinkingTime);
 
         int x = random.nextInt(hand.getCardList().size());
         return hand.getCardList().get(x);
@@ -625,28 +795,44 @@ public class Rummy extends CardGame {
     /**
      * Gets the last declaration action for logging purposes.
      */
-    private String getLastDeclarationAction() {
-        return strategy.getDeclarationType();
+    private Declaration getLastDeclarationAction() {
+        return roundState.getDeclaration();
     }
 
     /**
      * Checks if computer player should make a declaration.
      * Tries all supported declarations in priority order.
-     * @return declaration type or null if no declaration
+     * @return declaration or null if no declaration
      */
-    private String checkComputerDeclaration(Hand hand, int player) {
-        final int deadwood = MeldDetector.getDeadwoodValue(hand);
+    private Declaration checkComputerDeclaration(Hand hand, int player) {
+        long start = MetricsRegistry.start();
+        Declaration declaration = findComputerDeclaration(hand, player);
+        GameMetrics.DECLARATION_CHECK.recordSince(start);
+        if (declaration != null) {
+            GameMetrics.COMPUTER_DECLARATIONS.increment();
+        }
+        return declaration;
+    }
+
+    private Declaration findComputerDeclaration(Hand hand, int player) {
+        // One analysis of the hand serves the deadwood check, canDeclare and validateDeclaration
+        MeldAnalysisContext context = new MeldAnalysisContext();
+        final int deadwood = context.getDeadwoodValue(hand);
 
         // Try each supported declaration in priority order
-        for (String declarationType : strategy.getSupportedDeclarations()) {
-            if ("KNOCK".equals(declarationType) && deadwood > 7) {
+        for (Declaration declaration : strategy.getSupportedDeclarations()) {
+            if (declaration == Declaration.KNOCK && deadwood > knockThreshold) {
                 continue; // try next declaration (if any)
             }
+            if (declaration == Declaration.KNOCK && knockAdvisor != null
+                    && !knockAdvisor.shouldKnock(observe(player, hand, false))) {
+                continue; // waiting is expected to score better
+            }
 
-            if (strategy.canDeclare(hand, declarationType)) {
-                boolean isValid = strategy.validateDeclaration(hand, player, declarationType);
+            if (strategy.canDeclare(hand, declaration, context)) {
+                boolean isValid = validateDeclaration(hand, player, declaration, context);
                 if (isValid) {
-                    return declarationType;
+                    return declaration;
                 }
             }
         }
@@ -670,6 +856,11 @@ public class Rummy extends CardGame {
      * Handles card drawing, discarding, and declaration input.
      */
     private void processHumanTurn(int player, Hand hand) {
+        if (window == null) {
+            throw new IllegalStateException("Player " + player + " has no scripted move left and a headless table "
+                    + "cannot ask the human for one");
+        }
+
         // Draw phase
         if (!discard.isEmpty()) {
             setStatus("Player " + player + " is playing. Please double click on a pile to draw");
@@ -692,31 +883,37 @@ public class Rummy extends CardGame {
         enableDeclarationButtons(false);
 
         // Log the move
-        String action = getLastDeclarationAction();
+        Declaration action = getLastDeclarationAction();
         addCardPlayedToLog(player, selected, drawnCard, action);
     }
 
     /**
      * Processes a computer player's turn.
-     * Uses either random or smart AI based on configuration.
+     * Uses random, smart or MCTS AI based on configuration, and the endgame solver when enabled and few cards are unknown.
      */
     private void processComputerTurn(int player, Hand hand) {
-        System.out.println("\n=== P" + player + " COMPUTER TURN START ===");
-        System.out.println("Initial hand (" + hand.getNumberOfCards() + " cards):");
+        DebugLog.println("\n=== P" + player + " COMPUTER TURN START ===");
+        DebugLog.println("Initial hand (" + hand.getNumberOfCards() + " cards):");
         for (Card c : hand.getCardList()) {
-            System.out.println("  " + cardDescriptionForLog(c));
+            DebugLog.println("  " + cardDescriptionForLog(c));
         }
 
         boolean isSmartEnabled = Boolean.parseBoolean(properties.getProperty("computer_smart", "false"));
-        System.out.println("Computer smart enabled: " + isSmartEnabled);
-
-        if (!isSmartEnabled) {
+        DebugLog.println("Computer smart enabled: " + isSmartEnabled);
+        DebugLog.println("Computer MCTS enabled: " + (mctsPlayer != null));
+
+        if (endgameSolver != null && endgameSolver.takesOver(observe(player, hand, false))) {
+            DebugLog.println("Endgame solver taking over");
+            processAnytimeComputerTurn(player, hand, endgameSolver);
+        } else if (mctsPlayer != null) {
+            processAnytimeComputerTurn(player, hand, mctsPlayer);
+        } else if (!isSmartEnabled) {
             processRandomComputerTurn(player, hand);
         } else {
             processSmartComputerTurn(player, hand);
         }
 
-        System.out.println("=== P" + player + " COMPUTER TURN END ===\n");
+        DebugLog.println("=== P" + player + " COMPUTER TURN END ===\n");
     }
 
     /**
@@ -724,7 +921,7 @@ public class Rummy extends CardGame {
      * Makes random decisions for drawing and discarding.
      */
     private void processRandomComputerTurn(int player, Hand hand) {
-        System.out.println("Using random logic");
+        DebugLog.println("Using random logic");
 
         // Random draw decision
         if (!discard.isEmpty()) {
@@ -746,9 +943,9 @@ public class Rummy extends CardGame {
         discardCardFromHand(selected, hand);
 
         // Check for declaration
-        String declaration = checkComputerDeclaration(hand, player);
+        Declaration declaration = checkComputerDeclaration(hand, player);
         if (declaration != null) {
-            System.out.println("P" + player + " DECLARING " + declaration + "!");
+            DebugLog.println("P" + player + " DECLARING " + declaration + "!");
             addCardPlayedToLog(player, selected, drawnCard, declaration);
         } else {
             addCardPlayedToLog(player, selected, drawnCard, null);
@@ -767,7 +964,10 @@ public class Rummy extends CardGame {
         // Evaluate discard pile
         if (!discard.isEmpty()) {
             Card discardTop = dealTopCard(discard);
-            if (smartPlayer.shouldKeepCard(discardTop, hand)) {
+            long start = MetricsRegistry.start();
+            boolean keepDiscard = smartPlayer.shouldKeepCard(discardTop, hand);
+            GameMetrics.AI_EVALUATION.recordSince(start);
+            if (keepDiscard) {
                 drawnCard = processTopCardFromPile(discard, hand);
                 keptCard = true;
             }
@@ -776,34 +976,86 @@ public class Rummy extends CardGame {
         // If didn't keep discard, try stockpile
         if (!keptCard) {
             drawnCard = processTopCardFromPile(pack, hand);
-            if (smartPlayer.shouldKeepCard(drawnCard, hand)) {
-                keptCard = true;
-            }
+            long start = MetricsRegistry.start();
+            keptCard = smartPlayer.shouldKeepCard(drawnCard, hand);
+            GameMetrics.AI_EVALUATION.recordSince(start);
         }
 
         // Select card to discard
         if (keptCard) {
-            selected = smartPlayer.selectCardToDiscard(hand, deck);
+            long start = MetricsRegistry.start();
+            selected = smartPlayer.selectCardToDiscard(hand, deck, cardTrackers[player]);
+            GameMetrics.AI_EVALUATION.recordSince(start);
         } else {
             selected = drawnCard;
         }
 
         discardCardFromHand(selected, hand);
 
+        finishComputerTurn(player, hand);
+    }
+
+    /**
+     * Processes an MCTS or endgame solver computer player turn.
+     * Uses the given player for the draw and discard decisions.
+     */
+    private void processAnytimeComputerTurn(int player, Hand hand, AnytimeComputerPlayer computer) {
+        setStatusText("Player " + player + " thinking...");
+
+        // thinkingTime is the turn's compute budget: half for the draw, the rest for the discard
+        long turnStart = System.nanoTime();
+        long drawDeadline = turnStart + thinkingTime * 500_000L;
+        long turnDeadline = turnStart + thinkingTime * 1_000_000L;
+
+        // Draw phase
+        boolean fromDiscard = computer.shouldDrawFromDiscard(observe(player, hand, false), drawDeadline);
+        // Keep the pacing human opponents are used to, even when the answer came early
+        delayUntil(drawDeadline);
+        drawnCard = takeTopCardFromPile(fromDiscard ? discard : pack, hand);
+
+        // Discard phase
+        int discardIndex = computer.selectDiscard(observe(player, hand, true), turnDeadline);
+        delayUntil(turnDeadline);
+        selected = CardMasks.findCard(hand, discardIndex);
+
+        discardCardFromHand(selected, hand);
+
+        finishComputerTurn(player, hand);
+    }
+
+    /**
+     * Builds what the player can observe at a decision point
+     */
+    private InformationSet observe(int player, Hand hand, boolean awaitingDiscard) {
+        int opponent = (player + 1) % nbPlayers;
+        List<Card> discardCards = discard.getCardList();
+        int[] discardPile = new int[discardCards.size()];
+        for (int i = 0; i < discardPile.length; i++) {
+            discardPile[i] = CardMasks.index(discardCards.get(i));
+        }
+        return new InformationSet(player, strategy.usesDeclaration(Declaration.GIN), knockThreshold,
+                CardMasks.toMask(hand), discardPile, pack.getNumberOfCards(),
+                hands[opponent].getNumberOfCards(), cardTrackers[player].getOpponentKnownCards(), awaitingDiscard);
+    }
+
+    /**
+     * Logs the hand after a smart or MCTS computer turn and checks for a declaration
+     */
+    private void finishComputerTurn(int player, Hand hand) {
         // Debug output
-        System.out.println("Hand after discarding (" + hand.getNumberOfCards() + " cards):");
+        DebugLog.println("Hand after discarding (" + hand.getNumberOfCards() + " cards):");
         for (Card c : hand.getCardList()) {
-            System.out.println("  " + cardDescriptionForLog(c));
+            DebugLog.println("  " + cardDescriptionForLog(c));
         }
 
         // Check for declaration
-        String declaration = checkComputerDeclaration(hand, player);
+        Declaration declaration = checkComputerDeclaration(hand, player);
         if (declaration != null) {
             setStatusText("Player " + player + " is declaring " + declaration + "...");
-            System.out.println("P" + player + " DECLARING " + declaration + "!");
+            DebugLog.println("P" + player + " DECLARING " + declaration + "!");
             addCardPlayedToLog(player, selected, drawnCard, declaration);
         } else {
-            System.out.println("P" + player + " NOT declaring - continuing game");
+            DebugLog.println("P" + player + " NOT declaring - continuing game");
             addCardPlayedToLog(player, selected, drawnCard, null);
         }
     }
@@ -840,10 +1092,10 @@ public class Rummy extends CardGame {
      * @return true if valid declaration ends the round
      */
     private boolean checkForDeclarations() {
-        if (strategy.hasActiveDeclaration()) {
-            int declarer = strategy.getDeclaringPlayer();
-            String declarationType = strategy.getDeclarationType();
-            System.out.println(declarationType + " declared by P" + declarer);
+        if (roundState.hasActiveDeclaration()) {
+            int declarer = roundState.getDeclaringPlayer();
+            Declaration declaration = roundState.getDeclaration();
+            DebugLog.println(declaration + " declared by P" + declarer);
             return true;
         }
         return false;
@@ -853,9 +1105,13 @@ public class Rummy extends CardGame {
      * Plays a single round of the game.
      */
     private void playARound() {
+        long roundStart = MetricsRegistry.start();
+        RoundEndEvent roundEvent = new RoundEndEvent();
+        roundEvent.begin();
         int nextPlayer = roundWinner;
         addRoundInfoToLog(currentRound);
         addPlayerCardsToLog();
+        tableStatus.setRound(currentRound);
         int i = 0;
         boolean isContinue = true;
         setupPlayerAutoMovements();
@@ -865,6 +1121,12 @@ public class Rummy extends CardGame {
 
             for (int j = 0; j < nbPlayers; j++) {
                 Hand hand = hands[nextPlayer];
+                long turnStart = MetricsRegistry.start();
+                turnEvent = TURN_EVENT_TYPE.isEnabled() ? new TurnEvent() : null;
+                if (turnEvent != null) {
+                    turnEvent.begin();
+                }
+                tableStatus.setCurrentPlayer(nextPlayer);
 
                 // -------- Player turn (auto or human) --------
                 if (isAuto) {
@@ -895,29 +1157,31 @@ public class Rummy extends CardGame {
                                 discardCardFromHand(selected, hand);
                             }
 
-                            delay(thinkingTime);
+                            pause(thinkingTime);
 
                             if (cardActions.size() > 1) {
-                                CardAction lastAction = cardActions.get(1);
-                                String declarationType = lastAction.name();
+                                Declaration declaration = cardActions.get(1).getDeclaration();
 
                                 // Validate through strategy
-                                boolean isValid = strategy.validateDeclaration(hands[nextPlayer], nextPlayer, declarationType);
+                                boolean isValid = declaration != null
+                                        && validateDeclaration(hands[nextPlayer], nextPlayer, declaration,
+                                        new MeldAnalysisContext());
 
                                 if (isValid) {
-                                    setStatus("Player " + nextPlayer + " is declaring " + declarationType + "...");
+                                    setStatus("Player " + nextPlayer + " is declaring " + declaration + "...");
                                     isContinue = false;
-                                    addCardPlayedToLog(nextPlayer, selected, card, declarationType);
+                                    addCardPlayedToLog(nextPlayer, selected, card, declaration);
+                                    recordTurn(turnStart);
                                     break;
                                 } else {
-                                    System.out.println("WARNING: Auto-script declared invalid " + declarationType);
+                                    DebugLog.println("WARNING: Auto-script declared invalid " + cardActions.get(1));
                                     addCardPlayedToLog(nextPlayer, selected, card, null);
                                 }
                             } else {
                                 addCardPlayedToLog(nextPlayer, selected, card, null);
                             }
 
-                            delay(delayTime);
+                            pause(delayTime);
                         }
                     }
 
@@ -927,20 +1191,21 @@ public class Rummy extends CardGame {
                 } else {
                     processNonAutoPlaying(nextPlayer, hand);
                 }
+                recordTurn(turnStart);
 
                 // -------- Declarations handling --------
                 // Check if any valid declaration was made
                 boolean declarationMade = checkForDeclarations();
 
                 if (declarationMade) {
-                    System.out.println("Valid declaration made - ending round");
+                    DebugLog.println("Valid declaration made - ending round");
                     isContinue = false;
                     break; // Exit the turn loop
                 }
 
                 // ----- Stockpile exhaustion check -----
                 if (pack.isEmpty()) {
-                    System.out.println("\n>>> STOCK EXHAUSTED <<<");
+                    DebugLog.println("\n>>> STOCK EXHAUSTED <<<");
                     stockExhaustedThisRound = true;
                     setStatus("Stockpile is exhausted. Calculating players' scores now.");
                     isContinue = false;
@@ -956,6 +1221,25 @@ public class Rummy extends CardGame {
         calculateRoundScores();
 
         addEndOfRoundToLog();
+        GameMetrics.ROUND.recordSince(roundStart);
+        GameMetrics.ROUNDS.increment();
+        if (roundEvent.shouldCommit()) {
+            roundEvent.round = currentRound;
+            roundEvent.winner = roundWinner;
+            roundEvent.stockExhausted = stockExhaustedThisRound;
+            roundEvent.player0Score = scores[0];
+            roundEvent.player1Score = scores[1];
+            roundEvent.commit();
+        }
+    }
+
+    private void recordTurn(long turnStart) {
+        GameMetrics.TURN.recordSince(turnStart);
+        GameMetrics.TURNS.increment();
+        if (turnEvent != null) {
+            turnEvent.commit();
+            turnEvent = null;
+        }
     }
 
     private void setupPlayerAutoMovements() {
@@ -979,19 +1263,40 @@ public class Rummy extends CardGame {
     }
 
     public String runApp() {
-        setTitle("Pinochle  (V" + version + ") Constructed for UofM SWEN30006 with JGameGrid (www.aplu.ch)");
+        if (window != null) {
+            window.setTitle("Pinochle  (V" + version + ") Constructed for UofM SWEN30006 with JGameGrid (www.aplu.ch)");
+        }
         setStatusText("Initializing...");
         initScores();
         initScore();
         setupButtons();
 
         currentRound = 0;
+        openTable();
+        try {
+            playGame();
+        } finally {
+            // Also reached when the game stops with an exception (a script that runs out, a closed table)
+            releaseTable();
+        }
+        if (MetricsRegistry.isEnabled()) {
+            MetricsRegistry.getInstance().dump(System.out);
+        }
+
+        return logResult.toString();
+    }
+
+    /**
+     * Plays rounds until a player reaches the winning score, then announces the winner
+     */
+    private void playGame() {
         boolean isContinue = true;
         int winningScore = 100;
 
         while(isContinue) {
             initRound();
             playARound();
+            renderScheduler.flush();
 
             // Check if anyone reached 100 points
             for (int i = 0; i < nbPlayers; i++) {
@@ -1018,21 +1323,84 @@ public class Rummy extends CardGame {
             winText = "Game Over. Drawn winners are players: " +
                     winners.stream().map(String::valueOf).collect(Collectors.joining(", "));
         }
-        addActor(new Actor("sprites/gameover.gif"), textLocation);
+        if (window != null) {
+            window.addActor(new Actor(SpriteAssets.GAME_OVER), textLocation);
+        }
         setStatusText(winText);
-        refresh();
+        if (window != null) {
+            window.refresh();
+        }
         addEndOfGameToLog(winners);
 
-        return logResult.toString();
+        DebugLog.println("Smart player criterion statistics:");
+        smartPlayer.getEvaluationStatistics().forEach(stats -> DebugLog.println("  " + stats));
+    }
+
+    /**
+     * Lists the table as active, unless it was closed before its game started
+     */
+    private synchronized void openTable() {
+        if (isClosed) {
+            throw new IllegalStateException("Table closed before its game started");
+        }
+        tableStatus.open();
+    }
+
+    /**
+     * Stops the table's search threads and takes it off the active tables (may be called more than once)
+     */
+    private void releaseTable() {
+        if (mctsPlayer != null) {
+            mctsPlayer.shutdown();
+        }
+        if (knockAdvisor != null) {
+            knockAdvisor.shutdown();
+        }
+        tableStatus.close();
+    }
+
+    /**
+     * Releases the table (its status and search threads), stops the game thread and closes the window,
+     * for tables created in bulk. Headless tables are released the same way.
+     * May be called from another thread; a game waiting for a human move then stops with an exception.
+     */
+    public synchronized void close() {
+        if (isClosed) return;
+        isClosed = true;
+        releaseTable();
+        if (window == null) return;
+        window.stopGameThread();
+        if (window.getFrame() != null) {
+            window.getFrame().dispose();
+        }
     }
 
     public Rummy(Properties properties) {
-        super(700, 700, 30);
+        if (GraphicsEnvironment.isHeadless()) {
+            throw new IllegalStateException("No display available: the card deck needs one to build its sprites, "
+                    + "even with headless=true (run under a display or Xvfb)");
+        }
         this.properties = properties;
-        this.smartPlayer = new SmartComputerPlayer(deck);
+        boolean isHeadless = Boolean.parseBoolean(properties.getProperty("headless", "false"));
+        if (!isHeadless) {
+            // Started before the window is built, so the sprites load while it is being built
+            SpriteAssets.preloadInBackground();
+        }
+        this.window = isHeadless ? null : new CardGame(700, 700, 30);
+        this.deck = new Deck(Suit.values(), Rank.values(), SpriteAssets.CARD_BACK);
+        MetricsRegistry.getInstance().configure(properties);
+        this.smartPlayer = new SmartComputerPlayer(deck, properties);
+        this.knockThreshold = smartPlayer.getConfig().getKnockThreshold();
+        boolean isMctsEnabled = Boolean.parseBoolean(properties.getProperty("computer_mcts", "false"));
+        this.mctsPlayer = isMctsEnabled ? new MctsComputerPlayer(properties, seed) : null;
+        boolean isEndgameEnabled = Boolean.parseBoolean(properties.getProperty("computer_endgame", "false"));
+        this.endgameSolver = isEndgameEnabled ? new EndgameSolver(properties, seed) : null;
+        boolean isKnockAdvisorEnabled = Boolean.parseBoolean(properties.getProperty("computer_knock_advisor", "false"));
+        this.knockAdvisor = isKnockAdvisorEnabled ? new KnockAdvisor(properties, seed) : null;
         isAuto = Boolean.parseBoolean(properties.getProperty("isAuto"));
         thinkingTime = Integer.parseInt(properties.getProperty("thinkingTime", "200"));
         delayTime = Integer.parseInt(properties.getProperty("delayTime", "50"));
+        renderScheduler = new RenderScheduler(Integer.parseInt(properties.getProperty("render.fps", "30")));
 
         // Initialize strategy using factory pattern
         String mode = properties.getProperty("mode", "classic");
@@ -1040,19 +1408,25 @@ public class Rummy extends CardGame {
 
         // Get starting cards from strategy
         nbStartCards = strategy.getStartingCardCount();
+        tableStatus = new TableStatus(strategy.getModeName(), nbPlayers);
 
-        System.out.println("Initialized game with mode: " + strategy.getModeName());
-        System.out.println("Strategy created via factory pattern");
+        DebugLog.println("Initialized game with mode: " + strategy.getModeName());
+        DebugLog.println("Strategy created via factory pattern");
     }
 
     private void calculateRoundScores() {
-        System.out.println("\n========== CALCULATING ROUND SCORES ==========");
-        System.out.println("Mode: " + strategy.getModeName());
+        DebugLog.println("\n========== CALCULATING ROUND SCORES ==========");
+        DebugLog.println("Mode: " + strategy.getModeName());
 
         // Delegate scoring to strategy
-        roundWinner = strategy.calculateRoundScores(hands, scores, stockExhaustedThisRound);
+        long start = MetricsRegistry.start();
+        roundWinner = strategy.calculateRoundScores(hands, scores, stockExhaustedThisRound, roundState,
+                new MeldAnalysisContext());
+        GameMetrics.ROUND_SCORING.recordSince(start);
+        tableStatus.setScores(scores);
+        tableStatus.setCurrentPlayer(-1);
 
         setStatus("Round ended. P" + roundWinner + " wins!");
-        System.out.println("New scores: P0=" + scores[0] + " P1=" + scores[1]);
+        DebugLog.println("New scores: P0=" + scores[0] + " P1=" + scores[1]);
     }
 }
\ No newline at end of file
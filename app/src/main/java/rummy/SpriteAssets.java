@@ -0,0 +1,79 @@
+package rummy;
+
+import ch.aplu.jgamegrid.Actor;
+import ch.aplu.jgamegrid.GGButton;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sprites of the table, and their preloading.
+ * JGameGrid keeps every sprite it loads in a store shared by the whole JVM, decoded once and
+ * pre-rendered at each rotation, which is what makes the first Deck and buttons slow to create.
+ * preloadInBackground() fills that store on a daemon thread while the window is being built, so
+ * the table finds card faces and buttons ready; later rounds and tables reuse the stored sprites.
+ * The store loads one sprite at a time, so a single preloading thread is as fast as several, and
+ * on a single core there is nothing to overlap, so no thread is started.
+ */
+public final class SpriteAssets {
+    public static final String END_TURN = "sprites/end.gif";
+    public static final String RUMMY = "sprites/rummy.gif";
+    public static final String GIN = "sprites/gin.gif";
+    public static final String KNOCK = "sprites/knock.gif";
+    public static final String GAME_OVER = "sprites/gameover.gif";
+    public static final String CARD_BACK = "cover";
+
+    private static final String CARD_BACK_SPRITE = "sprites/" + CARD_BACK + ".gif";
+    private static final String[] BUTTONS = {END_TURN, RUMMY, GIN, KNOCK};
+    private static final AtomicReference<CompletableFuture<Void>> PRELOAD = new AtomicReference<>();
+
+    private SpriteAssets() {
+    }
+
+    /**
+     * Starts loading every card face, the card back, the buttons and the end screen, once per JVM
+     *
+     * @return Completes when the sprites are in the store
+     */
+    public static CompletableFuture<Void> preloadInBackground() {
+        CompletableFuture<Void> preload = new CompletableFuture<>();
+        if (!PRELOAD.compareAndSet(null, preload)) {
+            return PRELOAD.get();
+        }
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            // Nothing to overlap with on one core: the table loads its sprites as it creates them
+            preload.complete(null);
+            return preload;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                // Same paths and order as Deck uses for the card faces
+                for (Suit suit : Suit.values()) {
+                    for (int rank = 0; rank < Rank.values().length; rank++) {
+                        new Actor(cardFace(suit, rank));
+                    }
+                }
+                new Actor(CARD_BACK_SPRITE);
+                for (String button : BUTTONS) {
+                    new GGButton(button, false);
+                }
+                new Actor(GAME_OVER);
+                preload.complete(null);
+            } catch (RuntimeException | Error e) {
+                // The table loads whatever is missing itself
+                preload.completeExceptionally(e);
+            }
+        }, "sprite-preloader");
+        thread.setDaemon(true);
+        thread.start();
+        return preload;
+    }
+
+    /**
+     * @param rank Index of the rank in Rank.values()
+     * @return Sprite JGameGrid's Deck loads for the card face
+     */
+    static String cardFace(Suit suit, int rank) {
+        return "sprites/" + suit.name().toLowerCase() + rank + ".gif";
+    }
+}
@@ -0,0 +1,28 @@
+package rummy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Validation of a declaration by the game mode strategy
+ */
+@Name("rummy.Declaration")
+@Label("Declaration")
+@Category("Rummy")
+@Description("A RUMMY, GIN or KNOCK declaration checked by the game mode")
+public class DeclarationEvent extends jdk.jfr.Event {
+    @Label("Player")
+    public int player;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Deadwood")
+    @Description("Deadwood value of the declaring hand")
+    public int deadwood;
+}
@@ -0,0 +1,26 @@
+package rummy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One MeldDetector.findBestMelds call
+ */
+@Name("rummy.MeldAnalysis")
+@Label("Meld Analysis")
+@Category("Rummy")
+@Description("Search for the best combination of melds in a hand")
+public class MeldAnalysisEvent extends jdk.jfr.Event {
+    @Label("Hand Size")
+    public int handSize;
+
+    @Label("Candidate Melds")
+    @Description("Sets and runs found in the hand, overlapping ones included")
+    public int candidateMelds;
+
+    @Label("Combinations Explored")
+    @Description("Non-overlapping meld combinations compared")
+    public int combinationsExplored;
+}
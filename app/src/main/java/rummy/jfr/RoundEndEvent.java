@@ -0,0 +1,28 @@
+package rummy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A round, from its first turn until its scores are added
+ */
+@Name("rummy.RoundEnd")
+@Label("Round End")
+@Category("Rummy")
+public class RoundEndEvent extends jdk.jfr.Event {
+    @Label("Round")
+    public int round;
+
+    @Label("Winner")
+    public int winner;
+
+    @Label("Stock Exhausted")
+    public boolean stockExhausted;
+
+    @Label("Player 0 Score")
+    public int player0Score;
+
+    @Label("Player 1 Score")
+    public int player1Score;
+}
@@ -0,0 +1,32 @@
+package rummy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One player's turn, from its start until its move is logged
+ */
+@Name("rummy.Turn")
+@Label("Turn")
+@Category("Rummy")
+@Description("A player's draw, discard and declaration")
+public class TurnEvent extends jdk.jfr.Event {
+    @Label("Player")
+    public int player;
+
+    @Label("Action")
+    @Description("Pile the card was drawn from (DISCARD or STOCKPILE)")
+    public String action;
+
+    @Label("Drawn Card")
+    public String drawnCard;
+
+    @Label("Discarded Card")
+    public String discardedCard;
+
+    @Label("Declaration")
+    @Description("Declaration made at the end of the turn, if any")
+    public String declaration;
+}
@@ -0,0 +1,27 @@
+package rummy.mcts;
+
+/**
+ * Computer player whose decisions can be refined for as long as there is time.
+ * Each decision receives a deadline and must return by it with the best answer found so far;
+ * obvious decisions (a forced draw, a discard that goes out) return immediately.
+ */
+public interface AnytimeComputerPlayer {
+
+    /**
+     * Draw decision
+     *
+     * @param informationSet Observations before drawing
+     * @param deadlineNanos System.nanoTime() value by which to answer
+     * @return true to draw the top of the discard pile, false to draw from the stockpile
+     */
+    boolean shouldDrawFromDiscard(InformationSet informationSet, long deadlineNanos);
+
+    /**
+     * Discard decision
+     *
+     * @param informationSet Observations after drawing
+     * @param deadlineNanos System.nanoTime() value by which to answer
+     * @return Index of the card to discard (see CardMasks)
+     */
+    int selectDiscard(InformationSet informationSet, long deadlineNanos);
+}
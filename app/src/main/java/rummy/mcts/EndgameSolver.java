@@ -0,0 +1,336 @@
+package rummy.mcts;
+
+import rummy.DebugLog;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.SimulatedRound;
+
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Computer player for the end of a round, when few cards are still unknown.
+ * Each decision samples full round states consistent with what the player has seen and solves
+ * every sample with a depth-limited alpha-beta search, then plays the action with the best
+ * average value over the samples.
+ *
+ * Rounds are scored exactly as the game scores them (declarations as checked after every discard,
+ * stock exhaustion when the stockpile runs out). Positions beyond the search depth are valued by the
+ * deadwood difference, which is what a knock there would score; valuing them as a stock exhaustion
+ * instead makes every knock look worse than waiting. Searches deepen iteratively until the deadline
+ * or until the whole round fits within the depth, and share a transposition table keyed by a
+ * Zobrist hash of the round state.
+ *
+ * Configuration (all optional):
+ *   endgame.unknown_cards  Unknown cards (opponent's hidden cards plus stockpile) at or below which
+ *                          the solver takes over (default 14)
+ *   endgame.max_depth      Maximum search depth in actions, a turn being a draw and a discard (default 16)
+ *   endgame.samples        Maximum sampled states per decision (default 32)
+ *   endgame.table_mb       Transposition table size in megabytes (default 16)
+ */
+public class EndgameSolver implements AnytimeComputerPlayer {
+    private static final int INFINITY = 100_000;
+    // Actions are at most 53 (DRAW_DISCARD), so they fit in a byte of a table entry
+    private static final int NO_ACTION = 0xFF;
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+    // Each table entry is a key and a packed value (two longs)
+    private static final int ENTRY_BYTES = 16;
+    private static final int NODES_BETWEEN_CLOCK_CHECKS = 1024;
+
+    private final int unknownCardThreshold;
+    private final int maxDepth;
+    private final int maxSamples;
+    private final Random random;
+
+    // Transposition table: key and (value, depth, bound, best action) per entry
+    private final long[] tableKeys;
+    private final long[] tableEntries;
+    private final int tableMask;
+
+    // Zobrist keys
+    private final long[][] handKeys = new long[2][CardMasks.DECK_SIZE];
+    private final long[][] discardKeys = new long[CardMasks.DECK_SIZE][CardMasks.DECK_SIZE];
+    private final long[] stockKeys = new long[CardMasks.DECK_SIZE + 1];
+    private final long playerKey;
+    private final long awaitingDiscardKey;
+
+    // Search state, one round and action list per ply
+    private SimulatedRound[] rounds;
+    private final int[][] actions;
+    private final int[] scratch = new int[CardMasks.DECK_SIZE];
+    private final int[] leafDeadwood = new int[2];
+    private int player;
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+    private boolean horizonReached;
+
+    public EndgameSolver(Properties properties, long seed) {
+        this.unknownCardThreshold = Integer.parseInt(properties.getProperty("endgame.unknown_cards", "14"));
+        this.maxDepth = Integer.parseInt(properties.getProperty("endgame.max_depth", "16"));
+        this.maxSamples = Math.max(1, Integer.parseInt(properties.getProperty("endgame.samples", "32")));
+        long tableBytes = Long.parseLong(properties.getProperty("endgame.table_mb", "16")) << 20;
+        this.random = new Random(seed);
+
+        // Largest power of two that fits the memory limit
+        int entries = Integer.highestOneBit((int) Math.max(1, Math.min(1 << 30, tableBytes / ENTRY_BYTES)));
+        this.tableKeys = new long[entries];
+        this.tableEntries = new long[entries];
+        this.tableMask = entries - 1;
+
+        Random keys = new Random(seed ^ 0x5DEECE66DL);
+        for (int card = 0; card < CardMasks.DECK_SIZE; card++) {
+            handKeys[0][card] = keys.nextLong();
+            handKeys[1][card] = keys.nextLong();
+            for (int position = 0; position < CardMasks.DECK_SIZE; position++) {
+                discardKeys[position][card] = keys.nextLong();
+            }
+        }
+        for (int size = 0; size < stockKeys.length; size++) {
+            stockKeys[size] = keys.nextLong();
+        }
+        this.playerKey = keys.nextLong();
+        this.awaitingDiscardKey = keys.nextLong();
+        this.actions = new int[maxDepth + 1][CardMasks.DECK_SIZE];
+    }
+
+    /**
+     * @return true if few enough cards are unknown for the solver to decide
+     */
+    public boolean takesOver(InformationSet informationSet) {
+        return informationSet.getStockSize() > 0
+                && Long.bitCount(informationSet.getUnknownCards()) <= unknownCardThreshold;
+    }
+
+    @Override
+    public boolean shouldDrawFromDiscard(InformationSet informationSet, long deadlineNanos) {
+        if (informationSet.getDiscardTop() < 0) return false;
+        return solve(informationSet, deadlineNanos) == SimulatedRound.DRAW_DISCARD;
+    }
+
+    @Override
+    public int selectDiscard(InformationSet informationSet, long deadlineNanos) {
+        return solve(informationSet, deadlineNanos);
+    }
+
+    /**
+     * @return Action with the best average value over the sampled states
+     */
+    private int solve(InformationSet informationSet, long deadlineNanos) {
+        if (rounds == null || rounds[0].isGinMode() != informationSet.isGinMode()) {
+            rounds = new SimulatedRound[maxDepth + 1];
+            for (int ply = 0; ply <= maxDepth; ply++) {
+                rounds[ply] = new SimulatedRound(informationSet.isGinMode(), informationSet.getKnockThreshold());
+            }
+        }
+        player = informationSet.getPlayer();
+        deadline = deadlineNanos;
+        nodes = 0;
+
+        SimulatedRound root = rounds[0];
+        int[] rootActions = new int[CardMasks.DECK_SIZE];
+        long[] totals = new long[SimulatedRound.DRAW_DISCARD + 1];
+        int[] depthValues = new int[SimulatedRound.DRAW_DISCARD + 1];
+        int[] completedValues = new int[SimulatedRound.DRAW_DISCARD + 1];
+        int rootCount = 0;
+        int samples = 0;
+        int deepest = 0;
+
+        while (samples < maxSamples && (samples == 0 || System.nanoTime() - deadline < 0)) {
+            informationSet.sampleInto(root, random, scratch);
+            rootCount = root.legalActions(rootActions);
+            if (rootCount == 1) return rootActions[0];
+            // A fresh root key per sample keeps positions of different samples apart in the table
+            long rootHash = random.nextLong();
+
+            boolean solved = false;
+            for (int depth = 1; depth <= maxDepth && !solved; depth++) {
+                horizonReached = false;
+                aborted = false;
+                for (int i = 0; i < rootCount && !aborted; i++) {
+                    // Full window at the root: the values are averaged over samples
+                    depthValues[rootActions[i]] = child(0, rootActions[i], depth, -INFINITY, INFINITY, rootHash);
+                }
+                // The first iteration always completes so every sample gets a value
+                if (aborted && depth > 1) break;
+                for (int i = 0; i < rootCount; i++) {
+                    completedValues[rootActions[i]] = depthValues[rootActions[i]];
+                }
+                deepest = Math.max(deepest, depth);
+                solved = !horizonReached;
+                if (System.nanoTime() - deadline >= 0) break;
+            }
+            for (int i = 0; i < rootCount; i++) {
+                totals[rootActions[i]] += completedValues[rootActions[i]];
+            }
+            samples++;
+        }
+
+        int best = rootActions[0];
+        for (int i = 1; i < rootCount; i++) {
+            if (totals[rootActions[i]] > totals[best]) {
+                best = rootActions[i];
+            }
+        }
+        DebugLog.printf("[Endgame] %d unknown cards, %d samples, depth %d, %d nodes -> %s (%.2f points)\n",
+                Long.bitCount(informationSet.getUnknownCards()), samples, deepest, nodes, actionToString(best),
+                (double) totals[best] / samples);
+        return best;
+    }
+
+    // ===== Alpha-beta search =====
+
+    /**
+     * Applies an action to the round at ply and searches the resulting position
+     */
+    private int child(int ply, int action, int depth, int alpha, int beta, long hash) {
+        SimulatedRound round = rounds[ply];
+        SimulatedRound next = rounds[ply + 1];
+        next.copyFrom(round);
+        next.apply(action);
+        return search(ply + 1, depth - 1, alpha, beta, hash ^ hashDelta(round, next, action));
+    }
+
+    /**
+     * @return Value of the round at ply for the deciding player, in points
+     */
+    private int search(int ply, int depth, int alpha, int beta, long hash) {
+        SimulatedRound round = rounds[ply];
+        if (round.isOver()) {
+            return round.getPoints(player) - round.getPoints(1 - player);
+        }
+        if (depth == 0) {
+            horizonReached = true;
+            return evaluate(round);
+        }
+        if (++nodes % NODES_BETWEEN_CLOCK_CHECKS == 0 && System.nanoTime() - deadline >= 0) {
+            aborted = true;
+        }
+        if (aborted) return 0;
+
+        // Transposition table probe
+        int slot = (int) hash & tableMask;
+        int tableAction = NO_ACTION;
+        if (tableKeys[slot] == hash) {
+            long entry = tableEntries[slot];
+            int value = (int) entry;
+            int storedDepth = (int) (entry >>> 32) & 0xFF;
+            int bound = (int) (entry >>> 40) & 0xFF;
+            tableAction = (int) (entry >>> 48) & 0xFF;
+            if (storedDepth >= depth) {
+                if (bound == EXACT
+                        || (bound == LOWER_BOUND && value >= beta)
+                        || (bound == UPPER_BOUND && value <= alpha)) {
+                    return value;
+                }
+            }
+        }
+
+        int[] moves = actions[ply];
+        int count = orderActions(round, moves, tableAction);
+        boolean maximizing = round.getCurrentPlayer() == player;
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int best = maximizing ? -INFINITY : INFINITY;
+        int bestAction = moves[0];
+
+        for (int i = 0; i < count; i++) {
+            int value = child(ply, moves[i], depth, alpha, beta, hash);
+            if (aborted) return 0;
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestAction = moves[i];
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) break;
+        }
+
+        int bound = best <= originalAlpha ? UPPER_BOUND : best >= originalBeta ? LOWER_BOUND : EXACT;
+        if (tableKeys[slot] != hash || depth >= ((int) (tableEntries[slot] >>> 32) & 0xFF)) {
+            tableKeys[slot] = hash;
+            tableEntries[slot] = (best & 0xFFFFFFFFL) | ((long) depth << 32) | ((long) bound << 40)
+                    | ((long) bestAction << 48);
+        }
+        return best;
+    }
+
+    /**
+     * Legal actions, best guess first: the table's action, then discards from the highest value
+     *
+     * @return Number of actions
+     */
+    private static int orderActions(SimulatedRound round, int[] moves, int tableAction) {
+        int count = round.legalActions(moves);
+        // Insertion sort: there are at most 14 actions
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int key = sortKey(move, tableAction);
+            int j = i - 1;
+            while (j >= 0 && sortKey(moves[j], tableAction) < key) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = move;
+        }
+        return count;
+    }
+
+    private static int sortKey(int action, int tableAction) {
+        if (action == tableAction) return Integer.MAX_VALUE;
+        return action < CardMasks.DECK_SIZE ? CardMasks.value(action) : 0;
+    }
+
+    /**
+     * Values a position beyond the search depth by the deadwood difference.
+     * A player who still has to discard is assumed to throw their highest deadwood card.
+     */
+    private int evaluate(SimulatedRound round) {
+        int[] deadwood = leafDeadwood;
+        for (int p = 0; p < 2; p++) {
+            long hand = round.getHand(p);
+            long cards = BitMeldAnalyzer.deadwood(hand);
+            deadwood[p] = CardMasks.value(cards);
+            if (round.isAwaitingDiscard() && p == round.getCurrentPlayer()) {
+                int highest = 0;
+                for (; cards != 0; cards &= cards - 1) {
+                    highest = Math.max(highest, CardMasks.value(Long.numberOfTrailingZeros(cards)));
+                }
+                deadwood[p] -= highest;
+            }
+        }
+        return deadwood[1 - player] - deadwood[player];
+    }
+
+    /**
+     * Zobrist key change of an action (only the parts of the state the action touched)
+     */
+    private long hashDelta(SimulatedRound before, SimulatedRound after, int action) {
+        int mover = before.getCurrentPlayer();
+        long delta = awaitingDiscardKey;
+        if (action == SimulatedRound.DRAW_STOCK) {
+            int card = after.getLastDrawnCard();
+            delta ^= handKeys[mover][card] ^ stockKeys[before.getStockSize()] ^ stockKeys[after.getStockSize()];
+        } else if (action == SimulatedRound.DRAW_DISCARD) {
+            int card = after.getLastDrawnCard();
+            delta ^= handKeys[mover][card] ^ discardKeys[before.getDiscardSize() - 1][card];
+        } else {
+            delta ^= handKeys[mover][action] ^ discardKeys[before.getDiscardSize()][action];
+            if (after.getCurrentPlayer() != mover) {
+                delta ^= playerKey;
+            }
+        }
+        return delta;
+    }
+
+    private static String actionToString(int action) {
+        if (action == SimulatedRound.DRAW_STOCK) return "draw from stockpile";
+        if (action == SimulatedRound.DRAW_DISCARD) return "draw from discard pile";
+        return "discard " + CardMasks.toString(action);
+    }
+}
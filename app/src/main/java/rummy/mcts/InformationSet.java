@@ -0,0 +1,153 @@
+package rummy.mcts;
+
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.SimulatedRound;
+
+import java.util.Random;
+
+/**
+ * Everything a computer player has observed at a decision point.
+ * Cards the player cannot see (the unknown part of the opponent's hand and the stockpile)
+ * are filled in by sampling, which gives a determinization the search can play out.
+ */
+public class InformationSet {
+    // Upper bound on candidate opponent hands drawn per sample
+    private static final int MAX_CANDIDATE_HANDS = 8;
+
+    private final int player;
+    private final boolean ginMode;
+    private final int knockThreshold;
+    private final long ownHand;
+    private final int[] discardPile;
+    private final int stockSize;
+    private final int opponentHandSize;
+    private final long opponentKnownCards;
+    private final boolean awaitingDiscard;
+    private final long unknownCards;
+
+    /**
+     * @param player Index of the deciding player
+     * @param ginMode Whether the round uses Gin rules
+     * @param knockThreshold Deadwood at or below which a computer knocks (Gin mode)
+     * @param ownHand Mask of the deciding player's hand
+     * @param discardPile Discard pile cards, bottom first
+     * @param stockSize Number of cards left in the stockpile
+     * @param opponentHandSize Number of cards in the opponent's hand
+     * @param opponentKnownCards Cards known to be in the opponent's hand (taken from the discard pile)
+     * @param awaitingDiscard true if the player has drawn and must now discard
+     */
+    public InformationSet(int player, boolean ginMode, int knockThreshold, long ownHand, int[] discardPile,
+                          int stockSize, int opponentHandSize, long opponentKnownCards, boolean awaitingDiscard) {
+        this.player = player;
+        this.ginMode = ginMode;
+        this.knockThreshold = knockThreshold;
+        this.ownHand = ownHand;
+        this.discardPile = discardPile.clone();
+        this.stockSize = stockSize;
+        this.opponentHandSize = opponentHandSize;
+        this.opponentKnownCards = opponentKnownCards & ~ownHand;
+        this.awaitingDiscard = awaitingDiscard;
+
+        long seen = this.ownHand | this.opponentKnownCards;
+        for (int card : discardPile) {
+            seen |= CardMasks.bit(card);
+        }
+        this.unknownCards = CardMasks.FULL_DECK & ~seen;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    public boolean isGinMode() {
+        return ginMode;
+    }
+
+    public int getKnockThreshold() {
+        return knockThreshold;
+    }
+
+    public long getOwnHand() {
+        return ownHand;
+    }
+
+    public boolean isAwaitingDiscard() {
+        return awaitingDiscard;
+    }
+
+    public int getStockSize() {
+        return stockSize;
+    }
+
+    public int getDiscardTop() {
+        return discardPile.length == 0 ? -1 : discardPile[discardPile.length - 1];
+    }
+
+    /**
+     * @return Cards whose location the player does not know
+     */
+    public long getUnknownCards() {
+        return unknownCards;
+    }
+
+    /**
+     * Samples a full round state consistent with the observations into round.
+     * The opponent has been keeping melds and throwing deadwood for as long as the discard pile
+     * has been growing, so uniformly random hidden cards make them look far weaker than they are.
+     * Each turn seen adds one candidate hand (up to a limit) and the one with the least deadwood is kept.
+     *
+     * @param round Round to overwrite (must use the same mode)
+     * @param random Source of randomness for the hidden cards
+     * @param scratch Work array of at least 52 entries
+     */
+    public void sampleInto(SimulatedRound round, Random random, int[] scratch) {
+        int unknownCount = collect(unknownCards, scratch);
+        int hidden = Math.max(0, Math.min(opponentHandSize - Long.bitCount(opponentKnownCards), unknownCount));
+
+        long opponentHand = opponentKnownCards;
+        int bestDeadwood = Integer.MAX_VALUE;
+        int candidates = Math.min(MAX_CANDIDATE_HANDS, 1 + discardPile.length / 2);
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            shuffle(scratch, unknownCount, hidden, random);
+            long hand = opponentKnownCards;
+            for (int i = 0; i < hidden; i++) {
+                hand |= CardMasks.bit(scratch[i]);
+            }
+            int deadwood = candidates == 1 ? 0 : BitMeldAnalyzer.deadwoodValue(hand);
+            if (deadwood < bestDeadwood) {
+                bestDeadwood = deadwood;
+                opponentHand = hand;
+            }
+        }
+
+        // Whatever the opponent does not hold forms the stockpile, in random order
+        int remaining = collect(unknownCards & ~opponentHand, scratch);
+        int stock = Math.min(stockSize, remaining);
+        shuffle(scratch, remaining, stock, random);
+
+        long hand0 = player == 0 ? ownHand : opponentHand;
+        long hand1 = player == 0 ? opponentHand : ownHand;
+        round.reset(hand0, hand1, scratch, stock, discardPile, discardPile.length, player, awaitingDiscard);
+    }
+
+    private static int collect(long cards, int[] out) {
+        int n = 0;
+        for (; cards != 0; cards &= cards - 1) {
+            out[n++] = Long.numberOfTrailingZeros(cards);
+        }
+        return n;
+    }
+
+    /**
+     * Partial Fisher-Yates shuffle: moves count random entries of the first size entries to the front
+     */
+    private static void shuffle(int[] cards, int size, int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(size - i);
+            int tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package rummy.mcts;
+
+import rummy.DebugLog;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.GreedyPlayoutPolicy;
+import rummy.simulation.LayoffCalculator;
+import rummy.simulation.PlayoutPolicy;
+import rummy.simulation.SimulatedRound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decides whether a computer player in Gin mode should knock when its deadwood allows it.
+ * Samples opponent hands consistent with the player's observations and, for each sample, compares
+ * the score of knocking now (Gin knock scoring, undercuts included) with the score of passing and
+ * playing the round out with the greedy policy. The player only waits when waiting is better by
+ * a clear margin, so a decision cut short by the time cap knocks as before.
+ *
+ * Rollouts run in parallel and stop at the time cap, so the advisor can run on every Gin turn.
+ *
+ * Configuration (all optional):
+ *   knock.time_budget_ms  Time cap of one decision (default 10)
+ *   knock.rollouts        Maximum sampled opponent hands per decision (default 512)
+ *   knock.threads         Number of rollout threads (default: available processors)
+ *   knock.confidence      Standard errors by which waiting must beat knocking (default 1.0)
+ * The game's layoffs property is honoured when scoring both knocking now and later knocks.
+ */
+public class KnockAdvisor {
+    private final long timeBudgetNanos;
+    private final int maxRollouts;
+    private final int threads;
+    private final double confidence;
+    private final boolean layoffs;
+
+    private final ExecutorService executor;
+    private final Random seeds;
+
+    public KnockAdvisor(Properties properties, long seed) {
+        this.timeBudgetNanos = Long.parseLong(properties.getProperty("knock.time_budget_ms", "10")) * 1_000_000L;
+        this.maxRollouts = Integer.parseInt(properties.getProperty("knock.rollouts", "512"));
+        this.threads = Math.max(1, Integer.parseInt(properties.getProperty("knock.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        this.confidence = Double.parseDouble(properties.getProperty("knock.confidence", "1.0"));
+        this.layoffs = Boolean.parseBoolean(properties.getProperty("layoffs", "false"));
+        this.seeds = new Random(seed);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "knock-advisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param informationSet Observations after the player's discard
+     * @return true to knock now, false to play on
+     */
+    public boolean shouldKnock(InformationSet informationSet) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int perThread = Math.max(1, maxRollouts / threads);
+
+        List<Callable<double[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            long seed = seeds.nextLong();
+            tasks.add(() -> rollouts(informationSet, layoffs, new Random(seed), perThread, deadline));
+        }
+
+        // Sum of (wait - knock) score differences, of their squares, and the number of samples
+        double total = 0;
+        double squaredTotal = 0;
+        int samples = 0;
+        try {
+            for (Future<double[]> future : executor.invokeAll(tasks)) {
+                double[] result = future.get();
+                total += result[0];
+                squaredTotal += result[1];
+                samples += (int) result[2];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Knock rollouts failed", e.getCause());
+        }
+        if (samples < 2) return true;
+
+        double mean = total / samples;
+        double variance = Math.max(0, squaredTotal / samples - mean * mean);
+        double standardError = Math.sqrt(variance / samples);
+        boolean knock = mean <= confidence * standardError;
+        DebugLog.printf("[Knock Advisor] %d rollouts, waiting gains %+.2f points (standard error %.2f) -> %s\n",
+                samples, mean, standardError, knock ? "knock" : "play on");
+        return knock;
+    }
+
+    /**
+     * Stops the rollout threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return {sum of wait - knock differences, sum of their squares, number of samples}
+     */
+    private static double[] rollouts(InformationSet informationSet, boolean layoffs, Random random, int count,
+                                     long deadline) {
+        int player = informationSet.getPlayer();
+        SimulatedRound round = new SimulatedRound(informationSet.isGinMode(), informationSet.getKnockThreshold());
+        round.setLayoffs(layoffs);
+        PlayoutPolicy policy = new GreedyPlayoutPolicy();
+        int[] scratch = new int[CardMasks.DECK_SIZE];
+        int[] points = new int[2];
+
+        double total = 0;
+        double squaredTotal = 0;
+        int samples = 0;
+        while (samples < count && System.nanoTime() - deadline < 0) {
+            informationSet.sampleInto(round, random, scratch);
+
+            // Knock now
+            points[0] = 0;
+            points[1] = 0;
+            long knockerHand = round.getHand(player);
+            long defenderHand = round.getHand(1 - player);
+            int knockerDeadwood = BitMeldAnalyzer.deadwoodValue(knockerHand);
+            int defenderDeadwood = layoffs
+                    ? LayoffCalculator.deadwoodAfterLayoff(BitMeldAnalyzer.meldedCards(knockerHand), defenderHand)
+                    : BitMeldAnalyzer.deadwoodValue(defenderHand);
+            SimulatedRound.score(SimulatedRound.Outcome.KNOCK, player,
+                    player == 0 ? knockerDeadwood : defenderDeadwood, player == 0 ? defenderDeadwood : knockerDeadwood,
+                    points);
+            int knockValue = points[player] - points[1 - player];
+
+            // Pass and play on
+            round.passDeclaration();
+            round.playOut(policy);
+            int waitValue = round.getPoints(player) - round.getPoints(1 - player);
+
+            double difference = waitValue - knockValue;
+            total += difference;
+            squaredTotal += difference * difference;
+            samples++;
+        }
+        return new double[]{total, squaredTotal, samples};
+    }
+}
@@ -0,0 +1,208 @@
+package rummy.mcts;
+
+import rummy.DebugLog;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.GreedyPlayoutPolicy;
+import rummy.simulation.PlayoutPolicy;
+import rummy.simulation.SimulatedRound;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computer player that decides with information-set Monte Carlo tree search.
+ * Each decision runs one search tree per thread (root parallelism) until its deadline
+ * (or the time budget, when no deadline is given), then merges the root statistics and plays the most visited action, as long as it
+ * is clearly better than what the playout policy would have done.
+ *
+ * Configuration (all optional):
+ *   mcts.time_budget_ms  Time budget of decisions made without a deadline (default 500)
+ *   mcts.threads         Number of search threads (default: available processors)
+ *   mcts.exploration     UCB exploration constant (default 0.7)
+ *   mcts.max_depth       Maximum tree depth before the rollout takes over (default 8)
+ *   mcts.iterations      Iteration limit per thread, 0 for none (default 0)
+ *   mcts.confidence      Standard errors by which the search must beat the playout policy's
+ *                        own choice before it is played instead (default 2.0)
+ */
+public class MctsComputerPlayer implements AnytimeComputerPlayer {
+    private final long timeBudgetMs;
+    private final int threads;
+    private final double exploration;
+    private final int maxTreeDepth;
+    private final int maxIterations;
+    private final double confidence;
+
+    private final PlayoutPolicy policy = new GreedyPlayoutPolicy();
+    private final ExecutorService executor;
+    private final Random seeds;
+
+    public MctsComputerPlayer(Properties properties, long seed) {
+        this.timeBudgetMs = Long.parseLong(properties.getProperty("mcts.time_budget_ms", "500"));
+        this.threads = Math.max(1, Integer.parseInt(properties.getProperty("mcts.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        this.exploration = Double.parseDouble(properties.getProperty("mcts.exploration", "0.7"));
+        this.maxTreeDepth = Integer.parseInt(properties.getProperty("mcts.max_depth", "8"));
+        this.maxIterations = Integer.parseInt(properties.getProperty("mcts.iterations", "0"));
+        this.confidence = Double.parseDouble(properties.getProperty("mcts.confidence", "2.0"));
+        this.seeds = new Random(seed);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Draw decision within the configured time budget
+     *
+     * @param informationSet Observations before drawing
+     * @return true to draw the top of the discard pile, false to draw from the stockpile
+     */
+    public boolean shouldDrawFromDiscard(InformationSet informationSet) {
+        return shouldDrawFromDiscard(informationSet, budgetDeadline());
+    }
+
+    @Override
+    public boolean shouldDrawFromDiscard(InformationSet informationSet, long deadlineNanos) {
+        if (informationSet.getDiscardTop() < 0) return false;
+        if (informationSet.getStockSize() == 0) return true;
+
+        int action = search(informationSet, deadlineNanos);
+        DebugLog.println("[MCTS Player] Draw from " + (action == SimulatedRound.DRAW_DISCARD ? "discard pile" : "stockpile"));
+        return action == SimulatedRound.DRAW_DISCARD;
+    }
+
+    /**
+     * Discard decision within the configured time budget
+     *
+     * @param informationSet Observations after drawing
+     * @return Index of the card to discard (see CardMasks)
+     */
+    public int selectDiscard(InformationSet informationSet) {
+        return selectDiscard(informationSet, budgetDeadline());
+    }
+
+    @Override
+    public int selectDiscard(InformationSet informationSet, long deadlineNanos) {
+        long hand = informationSet.getOwnHand();
+
+        // Going out is never worse than anything the search could find
+        for (long cards = hand; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            if (BitMeldAnalyzer.allMelded(hand & ~CardMasks.bit(card))) {
+                DebugLog.println("[MCTS Player] Discard " + CardMasks.toString(card) + " (goes out)");
+                return card;
+            }
+        }
+
+        int card = search(informationSet, deadlineNanos);
+        DebugLog.println("[MCTS Player] Discard " + CardMasks.toString(card));
+        return card;
+    }
+
+    /**
+     * Stops the search threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long budgetDeadline() {
+        return System.nanoTime() + timeBudgetMs * 1_000_000L;
+    }
+
+    /**
+     * Searches until the deadline; with no time left this is just the playout policy's decision
+     */
+    private int search(InformationSet informationSet, long deadline) {
+        if (deadline - System.nanoTime() <= 0) {
+            return policyAction(informationSet);
+        }
+
+        List<MctsSearch> searches = new ArrayList<>();
+        List<Callable<MctsSearch>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            MctsSearch search = new MctsSearch(informationSet, policy, exploration, maxTreeDepth, seeds.nextLong());
+            searches.add(search);
+            tasks.add(() -> {
+                search.run(deadline, maxIterations);
+                return search;
+            });
+        }
+
+        try {
+            for (Future<MctsSearch> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return policyAction(informationSet);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("MCTS search failed", e.getCause());
+        }
+
+        long[] visits = new long[MctsSearch.ACTION_COUNT];
+        double[] rewards = new double[MctsSearch.ACTION_COUNT];
+        double[] squaredRewards = new double[MctsSearch.ACTION_COUNT];
+        int iterations = 0;
+        for (MctsSearch search : searches) {
+            search.addRootStatistics(visits, rewards, squaredRewards);
+            iterations += search.getIterations();
+        }
+
+        int best = -1;
+        for (int action = 0; action < visits.length; action++) {
+            if (visits[action] > 0 && (best < 0 || visits[action] > visits[best])) {
+                best = action;
+            }
+        }
+        int policyAction = policyAction(informationSet);
+        if (best < 0) {
+            return policyAction;
+        }
+
+        DebugLog.printf("[MCTS Player] %d iterations on %d threads, best action visited %d times (mean reward %.3f)\n",
+                iterations, threads, visits[best], rewards[best] / visits[best]);
+
+        // Rollout results are noisy, so only overrule the playout policy when the search is confident
+        if (best != policyAction && visits[policyAction] > 1
+                && !significantlyBetter(best, policyAction, visits, rewards, squaredRewards)) {
+            DebugLog.println("[MCTS Player] Search not confident, keeping policy action");
+            return policyAction;
+        }
+        return best;
+    }
+
+    /**
+     * One-sided comparison of the mean rewards of two root actions
+     */
+    private boolean significantlyBetter(int action, int other, long[] visits, double[] rewards, double[] squaredRewards) {
+        double mean = rewards[action] / visits[action];
+        double otherMean = rewards[other] / visits[other];
+        double variance = squaredRewards[action] / visits[action] - mean * mean;
+        double otherVariance = squaredRewards[other] / visits[other] - otherMean * otherMean;
+        double standardError = Math.sqrt(Math.max(0, variance) / visits[action] + Math.max(0, otherVariance) / visits[other]);
+        return mean - otherMean > confidence * standardError;
+    }
+
+    /**
+     * Decision of the playout policy, used as the default action
+     */
+    private int policyAction(InformationSet informationSet) {
+        long hand = informationSet.getOwnHand();
+        if (informationSet.isAwaitingDiscard()) {
+            return GreedyPlayoutPolicy.chooseDiscard(hand);
+        }
+        long top = CardMasks.bit(informationSet.getDiscardTop());
+        boolean melds = (BitMeldAnalyzer.meldedCards(hand | top) & top) != 0;
+        return melds ? SimulatedRound.DRAW_DISCARD : SimulatedRound.DRAW_STOCK;
+    }
+}
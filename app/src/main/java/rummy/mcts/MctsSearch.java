@@ -0,0 +1,124 @@
+package rummy.mcts;
+
+import rummy.simulation.PlayoutPolicy;
+import rummy.simulation.SimulatedRound;
+
+import java.util.Random;
+
+/**
+ * Single-observer information-set Monte Carlo tree search over one tree.
+ * Every iteration samples a determinization of the information set, descends the tree with
+ * UCB restricted to the actions legal in that determinization, expands one node, plays the
+ * round out with the playout policy and backs up the round result.
+ * Not thread-safe: root parallelism runs one instance per thread and merges the root statistics.
+ */
+class MctsSearch {
+    // Actions are card indexes (discards) plus the two draw actions
+    static final int ACTION_COUNT = SimulatedRound.DRAW_DISCARD + 1;
+    // Points difference that counts as a full win or loss
+    private static final double REWARD_SCALE = 50.0;
+
+    private final InformationSet informationSet;
+    private final PlayoutPolicy policy;
+    private final double exploration;
+    private final int maxTreeDepth;
+    private final Random random;
+
+    private final SearchNode root = new SearchNode(null, -1, -1);
+    private final SimulatedRound round;
+    private final int[] actions = new int[ACTION_COUNT];
+    private final int[] untried = new int[ACTION_COUNT];
+    private final int[] scratch = new int[ACTION_COUNT];
+    private int iterations;
+
+    MctsSearch(InformationSet informationSet, PlayoutPolicy policy, double exploration, int maxTreeDepth, long seed) {
+        this.informationSet = informationSet;
+        this.policy = policy;
+        this.exploration = exploration;
+        this.maxTreeDepth = maxTreeDepth;
+        this.random = new Random(seed);
+        this.round = new SimulatedRound(informationSet.isGinMode(), informationSet.getKnockThreshold());
+    }
+
+    /**
+     * Runs iterations until the deadline or the iteration limit
+     *
+     * @param deadlineNanos System.nanoTime() value to stop at
+     * @param maxIterations Iteration limit (0 for no limit)
+     */
+    void run(long deadlineNanos, int maxIterations) {
+        while ((maxIterations <= 0 || iterations < maxIterations) && System.nanoTime() - deadlineNanos < 0) {
+            iterate();
+            iterations++;
+        }
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Adds this tree's root statistics to the merged per-action totals
+     */
+    void addRootStatistics(long[] visits, double[] rewards, double[] squaredRewards) {
+        for (SearchNode child : root.children) {
+            visits[child.action] += child.visits;
+            rewards[child.action] += child.totalReward;
+            squaredRewards[child.action] += child.totalSquaredReward;
+        }
+    }
+
+    private void iterate() {
+        informationSet.sampleInto(round, random, scratch);
+        SearchNode node = root;
+
+        // Selection and expansion
+        for (int depth = 0; depth < maxTreeDepth && !round.isOver(); depth++) {
+            int legalCount = round.legalActions(actions);
+            int untriedCount = 0;
+            SearchNode best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+
+            for (int i = 0; i < legalCount; i++) {
+                SearchNode child = node.findChild(actions[i]);
+                if (child == null) {
+                    untried[untriedCount++] = actions[i];
+                    continue;
+                }
+                child.availability++;
+                double score = child.ucb(exploration);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+
+            int mover = round.getCurrentPlayer();
+            if (untriedCount > 0) {
+                int action = untried[random.nextInt(untriedCount)];
+                round.apply(action);
+                node = node.addChild(action, mover);
+                break;
+            }
+            round.apply(best.action);
+            node = best;
+        }
+
+        // Simulation
+        if (!round.isOver()) {
+            round.playOut(policy);
+        }
+
+        // Backpropagation, rewards seen from the player who moved into each node
+        int player = informationSet.getPlayer();
+        double diff = round.getPoints(player) - round.getPoints(1 - player);
+        double reward = Math.max(-1.0, Math.min(1.0, diff / REWARD_SCALE));
+        for (SearchNode n = node; n != null; n = n.parent) {
+            n.visits++;
+            if (n.parent != null) {
+                n.totalReward += n.playerJustMoved == player ? reward : -reward;
+                n.totalSquaredReward += reward * reward;
+            }
+        }
+    }
+}
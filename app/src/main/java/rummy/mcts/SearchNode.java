@@ -0,0 +1,51 @@
+package rummy.mcts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node of an information-set search tree.
+ * Children are keyed by action; since different determinizations allow different actions,
+ * each child also counts how often it was available for selection.
+ */
+class SearchNode {
+    final SearchNode parent;
+    final int action;
+    // Player who made the action leading to this node (-1 for the root)
+    final int playerJustMoved;
+    final List<SearchNode> children = new ArrayList<>();
+
+    int visits;
+    int availability;
+    double totalReward;
+    double totalSquaredReward;
+
+    SearchNode(SearchNode parent, int action, int playerJustMoved) {
+        this.parent = parent;
+        this.action = action;
+        this.playerJustMoved = playerJustMoved;
+    }
+
+    SearchNode findChild(int action) {
+        for (SearchNode child : children) {
+            if (child.action == action) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    SearchNode addChild(int action, int playerJustMoved) {
+        SearchNode child = new SearchNode(this, action, playerJustMoved);
+        child.availability = 1;
+        children.add(child);
+        return child;
+    }
+
+    /**
+     * UCB1 with availability counts instead of parent visits
+     */
+    double ucb(double exploration) {
+        return totalReward / visits + exploration * Math.sqrt(Math.log(availability) / visits);
+    }
+}
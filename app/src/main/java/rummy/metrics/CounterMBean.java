@@ -0,0 +1,10 @@
+package rummy.metrics;
+
+/**
+ * JMX view of a Counter
+ */
+public interface CounterMBean {
+    long getCount();
+
+    void reset();
+}
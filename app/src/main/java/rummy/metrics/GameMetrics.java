@@ -0,0 +1,38 @@
+package rummy.metrics;
+
+/**
+ * Metrics of the game loop phases
+ */
+public final class GameMetrics {
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getInstance();
+
+    // Latency of a whole round and of one player's turn
+    public static final LatencyHistogram ROUND = REGISTRY.histogram("game.round");
+    public static final LatencyHistogram TURN = REGISTRY.histogram("game.turn");
+    // Taking a card from the stockpile or discard pile
+    public static final LatencyHistogram DRAW = REGISTRY.histogram("phase.draw");
+    // MeldDetector.findBestMelds
+    public static final LatencyHistogram MELD_ANALYSIS = REGISTRY.histogram("phase.meld_analysis");
+    // Smart computer keep and discard decisions
+    public static final LatencyHistogram AI_EVALUATION = REGISTRY.histogram("phase.ai_evaluation");
+    // Computer declaration checks (including the knock advisor)
+    public static final LatencyHistogram DECLARATION_CHECK = REGISTRY.histogram("phase.declaration_check");
+    // GameModeStrategy.calculateRoundScores
+    public static final LatencyHistogram ROUND_SCORING = REGISTRY.histogram("phase.round_scoring");
+    // Redrawing a batch of hands and piles
+    public static final LatencyHistogram RENDERING = REGISTRY.histogram("phase.rendering");
+    // Thinking time and other deliberate pauses
+    public static final LatencyHistogram DELAY = REGISTRY.histogram("phase.delay");
+
+    public static final Counter ROUNDS = REGISTRY.counter("game.rounds");
+    public static final Counter TURNS = REGISTRY.counter("game.turns");
+    // MeldAnalysisContext lookups answered from its cache, and those that ran an analysis
+    public static final Counter MELD_CACHE_HITS = REGISTRY.counter("meld_cache.hits");
+    public static final Counter MELD_CACHE_MISSES = REGISTRY.counter("meld_cache.misses");
+    public static final Counter COMPUTER_DECLARATIONS = REGISTRY.counter("game.computer_declarations");
+    // Hand changes folded into a redraw that was already pending
+    public static final Counter COALESCED_REDRAWS = REGISTRY.counter("render.coalesced_redraws");
+
+    private GameMetrics() {
+    }
+}
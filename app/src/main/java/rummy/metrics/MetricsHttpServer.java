@@ -0,0 +1,159 @@
+package rummy.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP endpoint for operators, bound to the loopback address:
+ *   /metrics  Prometheus text format: active tables, turns played (rate() gives turns per second),
+ *             phase latency quantiles, meld cache hit ratio, every counter and the time since the
+ *             last garbage collection
+ *   /tables   JSON snapshot of the active tables: mode, round, scores and whose turn it is
+ * Requests are served on a small executor of its own, and only read the lock-free metrics and
+ * the tables' volatile status, so a scrape never waits on or stalls a game thread.
+ */
+public final class MetricsHttpServer {
+    private static final int THREADS = 2;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public MetricsHttpServer(MetricsRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4", prometheus()));
+        server.createContext("/tables", exchange -> respond(exchange, "application/json", tablesJson()));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    String prometheus() {
+        StringBuilder out = new StringBuilder();
+
+        gauge(out, "rummy_active_tables", "Game tables being played", TableStatus.getActiveTables().size());
+        out.append("# HELP rummy_turns_total Turns played by every table of the process\n");
+        out.append("# TYPE rummy_turns_total counter\n");
+        sample(out, "rummy_turns_total", null, GameMetrics.TURNS.getCount());
+
+        long hits = GameMetrics.MELD_CACHE_HITS.getCount();
+        long misses = GameMetrics.MELD_CACHE_MISSES.getCount();
+        gauge(out, "rummy_meld_cache_hit_ratio", "Share of meld analyses served from a MeldAnalysisContext",
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+        gauge(out, "rummy_gc_free_uptime_seconds", "Time since the last garbage collection ended", gcFreeSeconds());
+
+        Map<String, LatencyHistogram> histograms = new TreeMap<>(registry.getHistograms());
+        out.append("# HELP rummy_latency_seconds Latency of the game loop phases\n");
+        out.append("# TYPE rummy_latency_seconds summary\n");
+        histograms.forEach((name, histogram) -> {
+            String label = "name=\"" + name + "\"";
+            for (double quantile : QUANTILES) {
+                sample(out, "rummy_latency_seconds", label + ",quantile=\"" + quantile + "\"",
+                        histogram.getPercentileNanos(quantile) / 1e9);
+            }
+            sample(out, "rummy_latency_seconds_sum", label, histogram.getTotalNanos() / 1e9);
+            sample(out, "rummy_latency_seconds_count", label, histogram.getCount());
+        });
+
+        out.append("# HELP rummy_events_total Game loop event counters\n");
+        out.append("# TYPE rummy_events_total counter\n");
+        new TreeMap<>(registry.getCounters()).forEach((name, counter) ->
+                sample(out, "rummy_events_total", "name=\"" + name + "\"", counter.getCount()));
+        return out.toString();
+    }
+
+    /**
+     * @return Seconds since the last collection of any collector ended (the JVM uptime if none ran)
+     */
+    private static double gcFreeSeconds() {
+        long lastEnd = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof com.sun.management.GarbageCollectorMXBean details
+                    && details.getLastGcInfo() != null) {
+                lastEnd = Math.max(lastEnd, details.getLastGcInfo().getEndTime());
+            }
+        }
+        return (ManagementFactory.getRuntimeMXBean().getUptime() - lastEnd) / 1e3;
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        sample(out, name, null, value);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    static String tablesJson() {
+        List<TableStatus> tables = TableStatus.getActiveTables();
+        StringBuilder json = new StringBuilder("{\"tables\":[");
+        for (int i = 0; i < tables.size(); i++) {
+            TableStatus table = tables.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(table.getId())
+                    .append(",\"mode\":\"").append(table.getMode().replace("\"", "\\\"")).append('"')
+                    .append(",\"round\":").append(table.getRound())
+                    .append(",\"currentPlayer\":").append(table.getCurrentPlayer())
+                    .append(",\"scores\":[");
+            int[] scores = table.getScores();
+            for (int p = 0; p < scores.length; p++) {
+                if (p > 0) json.append(',');
+                json.append(scores[p]);
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,80 @@
+package rummy.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live status of one game table, written by its game thread and read by the metrics endpoint.
+ * A table is listed as active between open() and close().
+ */
+public class TableStatus {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final Set<TableStatus> ACTIVE = ConcurrentHashMap.newKeySet();
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final String mode;
+    private volatile int round;
+    private volatile int currentPlayer = -1;
+    private volatile int[] scores;
+
+    public TableStatus(String mode, int nbPlayers) {
+        this.mode = mode;
+        this.scores = new int[nbPlayers];
+    }
+
+    /**
+     * @return Tables currently being played, by id
+     */
+    public static List<TableStatus> getActiveTables() {
+        List<TableStatus> tables = new ArrayList<>(ACTIVE);
+        tables.sort(Comparator.comparingInt(TableStatus::getId));
+        return tables;
+    }
+
+    public void open() {
+        ACTIVE.add(this);
+    }
+
+    public void close() {
+        ACTIVE.remove(this);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public void setRound(int round) {
+        this.round = round;
+    }
+
+    /**
+     * @return Player whose turn it is, -1 between rounds
+     */
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public void setCurrentPlayer(int currentPlayer) {
+        this.currentPlayer = currentPlayer;
+    }
+
+    public int[] getScores() {
+        return scores.clone();
+    }
+
+    public void setScores(int[] scores) {
+        this.scores = scores.clone();
+    }
+}
@@ -0,0 +1,68 @@
+package rummy.scenario;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * One regression scenario: the game properties (rounds.N.players.M.initialcards, cardsPlayed, ...)
+ * and the fragments its game log must contain.
+ * In a properties file the fragments are the values of expected.0, expected.1, ...
+ */
+public class Scenario {
+    static final String EXPECTED_PREFIX = "expected.";
+
+    private final String name;
+    private final Properties properties;
+    private final List<String> expectedFragments;
+    private final RuntimeException loadError;
+
+    public Scenario(String name, Properties properties, List<String> expectedFragments) {
+        this(name, properties, expectedFragments, null);
+    }
+
+    private Scenario(String name, Properties properties, List<String> expectedFragments, RuntimeException loadError) {
+        this.name = name;
+        this.properties = properties;
+        this.expectedFragments = Collections.unmodifiableList(new ArrayList<>(expectedFragments));
+        this.loadError = loadError;
+    }
+
+    /**
+     * Entry of a suite that could not be read; running it reports the error instead of a game
+     */
+    public static Scenario unreadable(String name, RuntimeException loadError) {
+        return new Scenario(name, new Properties(), List.of(), loadError);
+    }
+
+    /**
+     * Scenario whose expected fragments are the expected.N keys of its properties
+     */
+    public static Scenario fromProperties(String name, Properties properties) {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; properties.containsKey(EXPECTED_PREFIX + i); i++) {
+            expected.add(properties.getProperty(EXPECTED_PREFIX + i));
+        }
+        return new Scenario(name, properties, expected);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public List<String> getExpectedFragments() {
+        return expectedFragments;
+    }
+
+    /**
+     * @return Why the scenario could not be read, null for a readable one
+     */
+    public RuntimeException getLoadError() {
+        return loadError;
+    }
+}
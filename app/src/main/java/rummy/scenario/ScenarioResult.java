@@ -0,0 +1,59 @@
+package rummy.scenario;
+
+import java.util.List;
+
+/**
+ * Outcome of running one scenario
+ */
+public class ScenarioResult {
+    public enum Status {PASSED, FAILED, ERROR}
+
+    private final String name;
+    private final Status status;
+    private final List<String> missingFragments;
+    private final String error;
+    private final long nanos;
+
+    private ScenarioResult(String name, Status status, List<String> missingFragments, String error, long nanos) {
+        this.name = name;
+        this.status = status;
+        this.missingFragments = missingFragments;
+        this.error = error;
+        this.nanos = nanos;
+    }
+
+    static ScenarioResult completed(String name, List<String> missingFragments, long nanos) {
+        return new ScenarioResult(name, missingFragments.isEmpty() ? Status.PASSED : Status.FAILED,
+                List.copyOf(missingFragments), null, nanos);
+    }
+
+    static ScenarioResult error(String name, Throwable error, long nanos) {
+        return new ScenarioResult(name, Status.ERROR, List.of(), String.valueOf(error), nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return Expected log fragments the game log did not contain
+     */
+    public List<String> getMissingFragments() {
+        return missingFragments;
+    }
+
+    /**
+     * @return Exception of a scenario that could not be run, null otherwise
+     */
+    public String getError() {
+        return error;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,273 @@
+package rummy.scenario;
+
+import rummy.DebugLog;
+import rummy.PropertiesLoader;
+import rummy.Rummy;
+
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Runs regression scenarios in bulk, in parallel, and checks each game log for the scenario's
+ * expected fragments. Scenarios are streamed from a ScenarioSource, so only the ones in flight
+ * are held in memory. A scenario whose script runs out fails on its missing human move when
+ * headless; one that does not finish within the timeout (for example a windowed one waiting for
+ * that move) is reported as an error and its table closed. Its slot stays taken until the game
+ * returns, so no more than scenarios.threads games ever run at once. An entry the source could not
+ * read is reported as an error and the run goes on.
+ *
+ * Usage: ScenarioRunner <scenario directory or .jsonl bundle> [runner properties file]
+ *   scenarios.threads    Scenarios run at once (default: available processors)
+ *   scenarios.timeout_s  Time limit of one scenario (default 60)
+ *   scenarios.report     File the summary report is also written to (default: none)
+ *   game.<key>           Game property set on every scenario, replacing the scenario's own
+ *                        (defaults: game.thinkingTime=0, game.delayTime=0, game.debug_output=false,
+ *                        game.headless=true)
+ */
+public class ScenarioRunner {
+    private static final String GAME_PREFIX = "game.";
+    // Name of the result reporting a scenario source that broke off
+    static final String SOURCE_NAME = "(scenario source)";
+
+    private final int threads;
+    private final long timeoutSeconds;
+    private final Properties gameOverrides = new Properties();
+
+    public ScenarioRunner(Properties properties) {
+        this.threads = Math.max(1, Integer.parseInt(properties.getProperty("scenarios.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        this.timeoutSeconds = Long.parseLong(properties.getProperty("scenarios.timeout_s", "60"));
+        gameOverrides.setProperty("thinkingTime", "0");
+        gameOverrides.setProperty("delayTime", "0");
+        gameOverrides.setProperty("debug_output", "false");
+        gameOverrides.setProperty("headless", "true");
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(GAME_PREFIX)) {
+                gameOverrides.setProperty(key.substring(GAME_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: ScenarioRunner <scenario directory or .jsonl bundle> [runner properties file]");
+            System.exit(2);
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("No display available: the card deck needs one to build its sprites, "
+                    + "even for headless tables (run under a display or Xvfb)");
+            System.exit(2);
+        }
+        Properties properties = args.length > 1 ? PropertiesLoader.loadPropertiesFile(Path.of(args[1])) : new Properties();
+        Summary summary;
+        try (Stream<Scenario> scenarios = ScenarioSource.open(Path.of(args[0]))) {
+            summary = new ScenarioRunner(properties).run(scenarios);
+        }
+        summary.print(System.out);
+
+        String report = properties.getProperty("scenarios.report");
+        if (report != null) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(report)))) {
+                summary.print(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write report " + report, e);
+            }
+        }
+        System.exit(summary.isSuccessful() ? 0 : 1);
+    }
+
+    /**
+     * Runs every scenario of the stream and waits for the last one
+     */
+    public Summary run(Stream<Scenario> scenarios) throws InterruptedException {
+        long start = System.nanoTime();
+        // Debug output is process-wide, so it is switched off once for all games
+        DebugLog.setEnabled(Boolean.parseBoolean(gameOverrides.getProperty("debug_output", "false")));
+
+        Queue<ScenarioResult> results = new ConcurrentLinkedQueue<>();
+        Semaphore slots = new Semaphore(threads);
+        ExecutorService workers = Executors.newCachedThreadPool(daemonThreads("scenario-runner"));
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(daemonThreads("scenario-watchdog"));
+        try {
+            Iterator<Scenario> iterator = scenarios.iterator();
+            while (true) {
+                Scenario scenario;
+                try {
+                    if (!iterator.hasNext()) break;
+                    scenario = iterator.next();
+                } catch (RuntimeException e) {
+                    // The source itself broke off (for example a bundle that stops being readable)
+                    results.add(ScenarioResult.error(SOURCE_NAME, e, 0));
+                    break;
+                }
+                slots.acquire();
+                long scenarioStart = System.nanoTime();
+                // Set by whichever of the game and the watchdog reports the scenario first
+                AtomicBoolean reported = new AtomicBoolean();
+                TableHandle table = new TableHandle();
+                Future<?> task = workers.submit(() -> {
+                    try {
+                        ScenarioResult result = runScenario(scenario, table);
+                        if (reported.compareAndSet(false, true)) {
+                            results.add(result);
+                        }
+                    } finally {
+                        // Held until the game returns, even after a timeout
+                        slots.release();
+                    }
+                });
+                watchdog.schedule(() -> {
+                    if (reported.compareAndSet(false, true)) {
+                        results.add(ScenarioResult.error(scenario.getName(),
+                                new TimeoutException("No result after " + timeoutSeconds + " s"),
+                                System.nanoTime() - scenarioStart));
+                        task.cancel(true);
+                        table.close();
+                    }
+                }, timeoutSeconds, TimeUnit.SECONDS);
+            }
+            slots.acquire(threads);
+        } finally {
+            workers.shutdownNow();
+            watchdog.shutdownNow();
+        }
+        return new Summary(new ArrayList<>(results), System.nanoTime() - start);
+    }
+
+    /**
+     * Plays one scenario on its own table and checks its log
+     */
+    public ScenarioResult runScenario(Scenario scenario) {
+        return runScenario(scenario, new TableHandle());
+    }
+
+    /**
+     * @param table Receives the game's table, so the watchdog can close it
+     */
+    private ScenarioResult runScenario(Scenario scenario, TableHandle table) {
+        long start = System.nanoTime();
+        if (scenario.getLoadError() != null) {
+            return ScenarioResult.error(scenario.getName(), scenario.getLoadError(), 0);
+        }
+        Properties properties = new Properties();
+        properties.putAll(scenario.getProperties());
+        properties.putAll(gameOverrides);
+        Rummy game = null;
+        try {
+            game = new Rummy(properties);
+            table.set(game);
+            String log = game.runApp();
+            List<String> missing = new ArrayList<>();
+            for (String fragment : scenario.getExpectedFragments()) {
+                if (!log.contains(fragment)) {
+                    missing.add(fragment);
+                }
+            }
+            return ScenarioResult.completed(scenario.getName(), missing, System.nanoTime() - start);
+        } catch (Exception | Error e) {
+            return ScenarioResult.error(scenario.getName(), e, System.nanoTime() - start);
+        } finally {
+            if (game != null) {
+                game.close();
+            }
+        }
+    }
+
+    /**
+     * Table of a running scenario. The watchdog may close it before the table is even built, in
+     * which case the table is closed as soon as it is.
+     */
+    private static class TableHandle {
+        private Rummy table;
+        private boolean closed;
+
+        synchronized void set(Rummy table) {
+            this.table = table;
+            if (closed) {
+                table.close();
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            if (table != null) {
+                table.close();
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Results of a bulk run
+     */
+    public static class Summary {
+        private final List<ScenarioResult> results;
+        private final long nanos;
+
+        Summary(List<ScenarioResult> results, long nanos) {
+            this.results = results;
+            this.nanos = nanos;
+            results.sort(Comparator.comparing(ScenarioResult::getName));
+        }
+
+        public List<ScenarioResult> getResults() {
+            return results;
+        }
+
+        public long count(ScenarioResult.Status status) {
+            return results.stream().filter(result -> result.getStatus() == status).count();
+        }
+
+        public boolean isSuccessful() {
+            return count(ScenarioResult.Status.PASSED) == results.size();
+        }
+
+        public void print(PrintStream out) {
+            double seconds = nanos / 1e9;
+            out.printf("Scenarios: %d run, %d passed, %d failed, %d errors in %.2f s (%.1f scenarios/s)%n",
+                    results.size(), count(ScenarioResult.Status.PASSED), count(ScenarioResult.Status.FAILED),
+                    count(ScenarioResult.Status.ERROR), seconds, seconds > 0 ? results.size() / seconds : 0);
+            for (ScenarioResult result : results) {
+                switch (result.getStatus()) {
+                    case FAILED -> {
+                        out.println("FAILED " + result.getName());
+                        result.getMissingFragments().forEach(fragment -> out.println("  missing: " + fragment));
+                    }
+                    case ERROR -> out.println("ERROR  " + result.getName() + ": " + result.getError());
+                    default -> {
+                    }
+                }
+            }
+            long slowest = results.stream().mapToLong(ScenarioResult::getNanos).max().orElse(0);
+            out.printf("Slowest scenario: %.0f ms%n", slowest / 1e6);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package rummy.scenario;
+
+import rummy.PropertiesLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Streams scenarios without loading a whole suite into memory, from either
+ *   a directory: every *.properties file below it, in path order, named by its relative path
+ *   a JSONL bundle: one scenario per line,
+ *     {"name": "...", "properties": {"mode": "gin", ...}, "expected": ["Round0 End:P0-0,P1-33", ...]}
+ *     where name is optional and expected.N keys inside properties are honoured as well
+ * An entry that cannot be read or parsed becomes an unreadable Scenario, so one bad entry does not
+ * stop the rest of the suite. The returned stream holds open files; close it when done.
+ */
+public final class ScenarioSource {
+    private ScenarioSource() {
+    }
+
+    /**
+     * @throws UncheckedIOException if the path cannot be read
+     */
+    public static Stream<Scenario> open(Path path) {
+        try {
+            return Files.isDirectory(path) ? directory(path) : bundle(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read scenarios from " + path, e);
+        }
+    }
+
+    private static Stream<Scenario> directory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".properties"))
+                    .sorted()
+                    .toList();
+        }
+        return files.stream().map(file -> loadFile(directory.relativize(file).toString(), file));
+    }
+
+    private static Scenario loadFile(String name, Path file) {
+        try {
+            return Scenario.fromProperties(name, PropertiesLoader.loadPropertiesFile(file));
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            return Scenario.unreadable(name, e);
+        }
+    }
+
+    private static Stream<Scenario> bundle(Path bundle) throws IOException {
+        int[] lineNumber = {0};
+        return Files.lines(bundle)
+                .map(line -> {
+                    lineNumber[0]++;
+                    return line;
+                })
+                .filter(line -> !line.isBlank())
+                .map(line -> readLine(bundle.getFileName() + ":" + lineNumber[0], line));
+    }
+
+    private static Scenario readLine(String location, String line) {
+        try {
+            return parseLine(location, line);
+        } catch (IllegalArgumentException e) {
+            return Scenario.unreadable(location, e);
+        }
+    }
+
+    /**
+     * @param location File and line, the scenario's name when the line has none
+     * @throws IllegalArgumentException if the line is not a scenario object
+     */
+    static Scenario parseLine(String location, String line) {
+        Object json;
+        try {
+            json = JsonParser.parse(line);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(location + ": " + e.getMessage(), e);
+        }
+        if (!(json instanceof Map<?, ?> object) || !(object.get("properties") instanceof Map<?, ?> values)) {
+            throw new IllegalArgumentException(location + ": expected an object with a \"properties\" object");
+        }
+
+        Properties properties = new Properties();
+        values.forEach((key, value) -> properties.setProperty(String.valueOf(key), scalar(value)));
+        Scenario fromProperties = Scenario.fromProperties(location, properties);
+        List<String> expected = new ArrayList<>(fromProperties.getExpectedFragments());
+        if (object.get("expected") instanceof List<?> fragments) {
+            fragments.forEach(fragment -> expected.add(String.valueOf(fragment)));
+        }
+        String name = object.get("name") instanceof String given ? given : location;
+        return new Scenario(name, properties, expected);
+    }
+
+    /**
+     * @return Property text of a JSON value (whole numbers without a decimal point)
+     */
+    private static String scalar(Object value) {
+        if (value instanceof Double number && number == Math.rint(number)) {
+            return String.valueOf(number.longValue());
+        }
+        return String.valueOf(value);
+    }
+}
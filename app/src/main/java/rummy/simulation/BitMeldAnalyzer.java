@@ -0,0 +1,114 @@
+package rummy.simulation;
+
+/**
+ * Meld analysis over 52-bit card masks for the headless simulation.
+ * Uses the same objective as MeldDetector (most melded cards first, then lowest deadwood value)
+ * and the same melds (sets of 3-4 cards of a rank, runs of 3+ consecutive cards of a suit),
+ * but searches by always placing the lowest remaining card, so it needs no meld lists and
+ * no allocation. Ties between equally good arrangements may be broken differently.
+ */
+public final class BitMeldAnalyzer {
+    private static final int RANKS = CardMasks.RANKS;
+    // Enough room for any deadwood value of a 14-card hand
+    private static final int DEADWOOD_RANGE = 255;
+    private static final int MELD_MASK_BITS = CardMasks.DECK_SIZE;
+    private static final long MELD_MASK = CardMasks.FULL_DECK;
+
+    private BitMeldAnalyzer() {
+    }
+
+    /**
+     * @return Mask of the cards melded in the best arrangement of the hand
+     */
+    public static long meldedCards(long hand) {
+        return search(hand) & MELD_MASK;
+    }
+
+    /**
+     * @return Mask of the deadwood cards in the best arrangement of the hand
+     */
+    public static long deadwood(long hand) {
+        return hand & ~meldedCards(hand);
+    }
+
+    public static int deadwoodValue(long hand) {
+        long result = search(hand);
+        int score = (int) (result >>> MELD_MASK_BITS) & 0xFF;
+        return DEADWOOD_RANGE - score;
+    }
+
+    /**
+     * @return true if every card of the hand is part of a meld
+     */
+    public static boolean allMelded(long hand) {
+        return meldedCards(hand) == hand;
+    }
+
+    /**
+     * Best arrangement of the remaining cards, packed as
+     * (melded card count, DEADWOOD_RANGE - deadwood value, melded mask) so that a larger
+     * unsigned value is a better arrangement.
+     */
+    private static long search(long remaining) {
+        if (remaining == 0) {
+            return pack(0, 0, 0);
+        }
+
+        int card = Long.numberOfTrailingZeros(remaining);
+        long cardBit = 1L << card;
+        long rest = remaining & ~cardBit;
+
+        // Option 1: the lowest card stays as deadwood
+        long best = search(rest) - ((long) CardMasks.value(card) << MELD_MASK_BITS);
+
+        // Option 2: runs starting at this card (no lower card of its suit remains)
+        int rank = card % RANKS;
+        long run = cardBit;
+        for (int next = card + 1, length = 2; rank + length - 1 < RANKS; next++, length++) {
+            long nextBit = 1L << next;
+            if ((remaining & nextBit) == 0) break;
+            run |= nextBit;
+            if (length >= 3) {
+                best = better(best, withMeld(search(remaining & ~run), run));
+            }
+        }
+
+        // Option 3: sets containing this card (only higher suits can remain)
+        long sameRank = 0;
+        int count = 0;
+        for (int other = card + RANKS; other < CardMasks.DECK_SIZE; other += RANKS) {
+            if ((remaining & (1L << other)) != 0) {
+                sameRank |= 1L << other;
+                count++;
+            }
+        }
+        if (count >= 2) {
+            if (count == 3) {
+                long set = cardBit | sameRank;
+                best = better(best, withMeld(search(remaining & ~set), set));
+            }
+            // Every set of 3 that includes this card
+            for (long pairs = sameRank; pairs != 0; pairs &= pairs - 1) {
+                long first = Long.lowestOneBit(pairs);
+                for (long seconds = pairs & ~first; seconds != 0; seconds &= seconds - 1) {
+                    long set = cardBit | first | Long.lowestOneBit(seconds);
+                    best = better(best, withMeld(search(remaining & ~set), set));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static long pack(int meldedCount, int deadwoodValue, long meldedMask) {
+        long score = ((long) meldedCount << 8) | (DEADWOOD_RANGE - deadwoodValue);
+        return (score << MELD_MASK_BITS) | meldedMask;
+    }
+
+    private static long withMeld(long result, long meld) {
+        return result + ((long) Long.bitCount(meld) << (MELD_MASK_BITS + 8)) + meld;
+    }
+
+    private static long better(long a, long b) {
+        return Long.compareUnsigned(a, b) >= 0 ? a : b;
+    }
+}
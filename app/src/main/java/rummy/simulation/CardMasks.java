@@ -0,0 +1,160 @@
+package rummy.simulation;
+
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Hand;
+import rummy.Rank;
+import rummy.Suit;
+
+import java.util.Collection;
+
+/**
+ * Compact card encoding used by the headless simulation.
+ * A card is an index 0-51 (suit ordinal * 13 + rank value - 1) and a set of cards is a
+ * 52-bit mask, so hands can be copied, compared and combined without allocating.
+ */
+public final class CardMasks {
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+    public static final int DECK_SIZE = RANKS * SUITS;
+    public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+
+    private static final Suit[] SUIT_VALUES = Suit.values();
+    private static final Rank[] RANKS_BY_VALUE = new Rank[RANKS + 1];
+    // Cards that can share a meld with each card: same rank, or same suit within two ranks
+    private static final long[] MELD_PARTNERS = new long[DECK_SIZE];
+
+    static {
+        for (Rank rank : Rank.values()) {
+            RANKS_BY_VALUE[rank.getShortHandValue()] = rank;
+        }
+        for (int card = 0; card < DECK_SIZE; card++) {
+            int rank = rankValueOf(card) - 1;
+            int suitBase = card - rank;
+            long partners = 0;
+            for (int suit = 0; suit < SUITS; suit++) {
+                partners |= bit(suit * RANKS + rank);
+            }
+            for (int r = Math.max(0, rank - 2); r <= Math.min(RANKS - 1, rank + 2); r++) {
+                partners |= bit(suitBase + r);
+            }
+            MELD_PARTNERS[card] = partners & ~bit(card);
+        }
+    }
+
+    private CardMasks() {
+    }
+
+    public static int index(Card card) {
+        return index((Suit) card.getSuit(), (Rank) card.getRank());
+    }
+
+    public static int index(Suit suit, Rank rank) {
+        return suit.ordinal() * RANKS + rank.getShortHandValue() - 1;
+    }
+
+    public static long bit(int index) {
+        return 1L << index;
+    }
+
+    public static long bit(Card card) {
+        return 1L << index(card);
+    }
+
+    public static int suitOf(int index) {
+        return index / RANKS;
+    }
+
+    /**
+     * @return Rank short hand value (1-13)
+     */
+    public static int rankValueOf(int index) {
+        return index % RANKS + 1;
+    }
+
+    public static Suit suit(int index) {
+        return SUIT_VALUES[suitOf(index)];
+    }
+
+    public static Rank rank(int index) {
+        return RANKS_BY_VALUE[rankValueOf(index)];
+    }
+
+    /**
+     * Deadwood value of a single card (same rules as MeldDetector.getCardValue)
+     */
+    public static int value(int index) {
+        return Math.min(rankValueOf(index), 10);
+    }
+
+    /**
+     * Total deadwood value of a set of cards
+     */
+    public static int value(long mask) {
+        int total = 0;
+        while (mask != 0) {
+            total += value(Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
+        return total;
+    }
+
+    /**
+     * @return Cards that could be in a meld together with the card (same rank, or same suit within two ranks)
+     */
+    public static long meldPartners(int index) {
+        return MELD_PARTNERS[index];
+    }
+
+    /**
+     * @return Union of the meld partners of every card in the mask
+     */
+    public static long meldPartners(long mask) {
+        long partners = 0;
+        while (mask != 0) {
+            partners |= MELD_PARTNERS[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return partners;
+    }
+
+    public static long toMask(Hand hand) {
+        return toMask(hand.getCardList());
+    }
+
+    public static long toMask(Collection<Card> cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= bit(card);
+        }
+        return mask;
+    }
+
+    /**
+     * @return The card of the hand with the given index, or null if the hand does not hold it
+     */
+    public static Card findCard(Hand hand, int index) {
+        for (Card card : hand.getCardList()) {
+            if (index(card) == index) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Card in the log format used by the game (e.g. "12S")
+     */
+    public static String toString(int index) {
+        return rankValueOf(index) + suit(index).getSuitShortHand();
+    }
+
+    public static String toString(long mask) {
+        StringBuilder sb = new StringBuilder();
+        while (mask != 0) {
+            if (!sb.isEmpty()) sb.append(",");
+            sb.append(toString(Long.numberOfTrailingZeros(mask)));
+            mask &= mask - 1;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package rummy.simulation;
+
+/**
+ * Fast default rollout policy:
+ * - Draws the discard top only if it ends up melded
+ * - Discards the highest-value deadwood card (or, with nothing left unmelded,
+ *   the card whose removal leaves the least deadwood)
+ */
+public class GreedyPlayoutPolicy implements PlayoutPolicy {
+
+    @Override
+    public boolean drawFromDiscard(SimulatedRound round) {
+        int top = round.getDiscardTop();
+        long hand = round.getHand(round.getCurrentPlayer()) | CardMasks.bit(top);
+        return (BitMeldAnalyzer.meldedCards(hand) & CardMasks.bit(top)) != 0;
+    }
+
+    @Override
+    public int chooseDiscard(SimulatedRound round) {
+        return chooseDiscard(round.getHand(round.getCurrentPlayer()));
+    }
+
+    /**
+     * @param hand Hand holding the drawn card
+     * @return Index of the card to discard
+     */
+    public static int chooseDiscard(long hand) {
+        long deadwood = BitMeldAnalyzer.deadwood(hand);
+        if (deadwood != 0) {
+            return highestValueCard(deadwood);
+        }
+
+        int best = -1;
+        int bestDeadwood = Integer.MAX_VALUE;
+        for (long cards = hand; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            int value = BitMeldAnalyzer.deadwoodValue(hand & ~CardMasks.bit(card));
+            if (value < bestDeadwood) {
+                bestDeadwood = value;
+                best = card;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Highest-value card of the mask (highest rank on ties)
+     */
+    static int highestValueCard(long cards) {
+        int best = -1;
+        int bestKey = -1;
+        for (; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            int key = CardMasks.value(card) * 16 + CardMasks.rankValueOf(card);
+            if (key > bestKey) {
+                bestKey = key;
+                best = card;
+            }
+        }
+        return best;
+    }
+}
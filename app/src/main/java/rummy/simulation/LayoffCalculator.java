@@ -0,0 +1,144 @@
+package rummy.simulation;
+
+/**
+ * Gin Rummy layoffs over card masks.
+ * After a knock the defender may lay deadwood off onto the knocker's melds: the missing fourth
+ * card of a set, or cards extending a run at either end (a laid-off card can itself be extended).
+ * The knocker's runs are kept as one mask and extended a rank at a time with shifts, so finding
+ * every card that can be laid off is a handful of bit operations.
+ *
+ * Cards that can be melded in several ways (A-2-3 of three suits: three runs or three sets) take
+ * different layoffs depending on the arrangement. The game and the simulations both arrange the
+ * knocker's melded cards with runCards, so they always score the same layoffs.
+ *
+ * When only deadwood cards can be laid off, laying off all of them is best. When a card the defender
+ * has melded could also be laid off, every valid layoff set is tried against the meld analysis,
+ * since breaking a meld can cost more than the layoff saves.
+ */
+public final class LayoffCalculator {
+    private static final int RANKS = CardMasks.RANKS;
+    // One card of each suit at rank 0 (aces)
+    private static final long RANK_COLUMN = 1L | 1L << RANKS | 1L << 2 * RANKS | 1L << 3 * RANKS;
+    private static final long NOT_ACE = CardMasks.FULL_DECK & ~RANK_COLUMN;
+    private static final long NOT_KING = CardMasks.FULL_DECK & ~(RANK_COLUMN << RANKS - 1);
+
+    private LayoffCalculator() {
+    }
+
+    /**
+     * @param knockerMelded Cards the knocker has melded, e.g. BitMeldAnalyzer.meldedCards of its hand
+     *                      (arranged into melds as runCards does)
+     * @param defenderHand Defender's hand mask
+     * @return Cards the defender should lay off to minimize its deadwood
+     * @throws IllegalArgumentException if the knocker's cards cannot be arranged into melds
+     */
+    public static long bestLayoff(long knockerMelded, long defenderHand) {
+        long runs = runCards(knockerMelded);
+        if (runs == -1) {
+            throw new IllegalArgumentException("Not a set of melds: " + CardMasks.toString(knockerMelded));
+        }
+        return bestLayoff(runs, setCompletions(knockerMelded & ~runs), defenderHand);
+    }
+
+    /**
+     * @return Defender's deadwood value after its best layoff
+     */
+    public static int deadwoodAfterLayoff(long knockerMelded, long defenderHand) {
+        return BitMeldAnalyzer.deadwoodValue(defenderHand & ~bestLayoff(knockerMelded, defenderHand));
+    }
+
+    private static long bestLayoff(long runs, long setCompletions, long defenderHand) {
+        long candidates = attachable(runs, setCompletions, defenderHand);
+        if (candidates == 0) {
+            return 0;
+        }
+        if ((candidates & BitMeldAnalyzer.meldedCards(defenderHand)) == 0) {
+            // Removing deadwood leaves the defender's melds intact
+            return candidates;
+        }
+
+        long best = 0;
+        int bestDeadwood = BitMeldAnalyzer.deadwoodValue(defenderHand);
+        for (long subset = candidates; subset != 0; subset = (subset - 1) & candidates) {
+            if (attachable(runs, setCompletions, subset) != subset) continue;
+            int deadwood = BitMeldAnalyzer.deadwoodValue(defenderHand & ~subset);
+            if (deadwood < bestDeadwood) {
+                bestDeadwood = deadwood;
+                best = subset;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The cards of the mask that can be laid off together, given the knocker's run cards
+     * and the cards completing the knocker's sets
+     */
+    private static long attachable(long runs, long setCompletions, long cards) {
+        long extended = runs;
+        while (true) {
+            long adjacent = ((extended << 1) & NOT_ACE) | ((extended >>> 1) & NOT_KING);
+            long extension = cards & adjacent & ~extended;
+            if (extension == 0) break;
+            extended |= extension;
+        }
+        return (cards & setCompletions) | (cards & extended & ~runs);
+    }
+
+    /**
+     * @param sets Cards the knocker has melded into sets
+     * @return The missing fourth card of each three-card set
+     */
+    private static long setCompletions(long sets) {
+        long completions = 0;
+        for (int rank = 0; rank < RANKS; rank++) {
+            long column = RANK_COLUMN << rank;
+            if (Long.bitCount(sets & column) == 3) {
+                completions |= column & ~sets;
+            }
+        }
+        return completions;
+    }
+
+    /**
+     * Splits a fully melded mask into runs and sets, placing the lowest card first like
+     * BitMeldAnalyzer. If the cards can be arranged in several ways, the first arrangement found is used.
+     *
+     * @return Cards of the mask that are in runs, or -1 if the mask cannot be split into melds
+     */
+    static long runCards(long melded) {
+        if (melded == 0) {
+            return 0;
+        }
+
+        int card = Long.numberOfTrailingZeros(melded);
+        long cardBit = 1L << card;
+
+        // Runs starting at this card
+        long run = cardBit;
+        for (int next = card + 1, length = 2; card % RANKS + length - 1 < RANKS; next++, length++) {
+            long nextBit = 1L << next;
+            if ((melded & nextBit) == 0) break;
+            run |= nextBit;
+            if (length >= 3) {
+                long rest = runCards(melded & ~run);
+                if (rest != -1) return rest | run;
+            }
+        }
+
+        // Sets containing this card (only higher suits can remain)
+        long sameRank = melded & (RANK_COLUMN << card % RANKS) & ~cardBit;
+        if (Long.bitCount(sameRank) == 3) {
+            long rest = runCards(melded & ~sameRank & ~cardBit);
+            if (rest != -1) return rest;
+        }
+        for (long pairs = sameRank; pairs != 0; pairs &= pairs - 1) {
+            long first = Long.lowestOneBit(pairs);
+            for (long seconds = pairs & ~first; seconds != 0; seconds &= seconds - 1) {
+                long rest = runCards(melded & ~(cardBit | first | Long.lowestOneBit(seconds)));
+                if (rest != -1) return rest;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,123 @@
+package rummy.simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Strength of dealt hands, precomputed by OpeningHandTableGenerator and memory-mapped at startup.
+ * Hands are grouped into classes by their melded card count, deadwood value (in steps of
+ * DEADWOOD_STEP) and number of deadwood cards one card short of a meld. For each class and mode the
+ * table holds the expected deadwood at the end of the round, the win rate and the sample count.
+ * Looking a hand up costs one meld analysis and one read from the mapped file.
+ *
+ * File layout (big-endian):
+ *   int MAGIC, int CLASS_COUNT, then for Gin and Classic mode in that order,
+ *   CLASS_COUNT entries of (float expected deadwood, float win rate, int samples)
+ */
+public final class OpeningHandTable {
+    public static final int MAGIC = 0x524F4854; // "ROHT"
+    public static final int DEADWOOD_STEP = 5;
+
+    private static final int MELDED_CLASSES = 14;
+    private static final int DEADWOOD_CLASSES = 20;
+    private static final int DRAW_CLASSES = 8;
+    public static final int CLASS_COUNT = MELDED_CLASSES * DEADWOOD_CLASSES * DRAW_CLASSES;
+
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 12;
+    private static final int MODE_BYTES = CLASS_COUNT * ENTRY_BYTES;
+
+    private final ByteBuffer buffer;
+
+    private OpeningHandTable(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps a table file written by OpeningHandTableGenerator
+     *
+     * @throws UncheckedIOException if the file cannot be read or is not a table of this layout
+     */
+    public static OpeningHandTable load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.capacity() != HEADER_BYTES + 2 * MODE_BYTES
+                    || buffer.getInt(0) != MAGIC || buffer.getInt(4) != CLASS_COUNT) {
+                throw new IOException("Not an opening hand table: " + path);
+            }
+            return new OpeningHandTable(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load opening hand table " + path, e);
+        }
+    }
+
+    /**
+     * @param hand Dealt hand mask
+     * @return Class index of the hand, in [0, CLASS_COUNT)
+     */
+    public static int classOf(long hand) {
+        long melded = BitMeldAnalyzer.meldedCards(hand);
+        long deadwood = hand & ~melded;
+
+        // Deadwood cards that share a possible meld with another deadwood card
+        int drawing = 0;
+        for (long cards = deadwood; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            if ((CardMasks.meldPartners(card) & deadwood) != 0) {
+                drawing++;
+            }
+        }
+
+        int meldedClass = Math.min(MELDED_CLASSES - 1, Long.bitCount(melded));
+        int deadwoodClass = Math.min(DEADWOOD_CLASSES - 1, CardMasks.value(deadwood) / DEADWOOD_STEP);
+        int drawClass = Math.min(DRAW_CLASSES - 1, drawing);
+        return (meldedClass * DEADWOOD_CLASSES + deadwoodClass) * DRAW_CLASSES + drawClass;
+    }
+
+    /**
+     * @return Byte offset of a class entry in the table file
+     */
+    static int offset(boolean ginMode, int handClass) {
+        return HEADER_BYTES + (ginMode ? 0 : MODE_BYTES) + handClass * ENTRY_BYTES;
+    }
+
+    /**
+     * @return Expected deadwood value at the end of the round, for a hand dealt in this class
+     */
+    public float getExpectedDeadwood(boolean ginMode, int handClass) {
+        return buffer.getFloat(offset(ginMode, handClass));
+    }
+
+    /**
+     * @return Fraction of rounds won (ties count half), for a hand dealt in this class
+     */
+    public float getWinRate(boolean ginMode, int handClass) {
+        return buffer.getFloat(offset(ginMode, handClass) + 4);
+    }
+
+    /**
+     * @return Number of simulated deals behind the class's figures (0 if none was seen)
+     */
+    public int getSamples(boolean ginMode, int handClass) {
+        return buffer.getInt(offset(ginMode, handClass) + 8);
+    }
+
+    /**
+     * @return Human-readable description of a class
+     */
+    public static String describeClass(int handClass) {
+        int drawClass = handClass % DRAW_CLASSES;
+        int deadwoodClass = handClass / DRAW_CLASSES % DEADWOOD_CLASSES;
+        int meldedClass = handClass / DRAW_CLASSES / DEADWOOD_CLASSES;
+        return String.format("%d melded, deadwood %d-%d, %d drawing", meldedClass,
+                deadwoodClass * DEADWOOD_STEP, deadwoodClass * DEADWOOD_STEP + DEADWOOD_STEP - 1, drawClass);
+    }
+}
@@ -0,0 +1,20 @@
+package rummy.simulation;
+
+/**
+ * Decision policy used to play a SimulatedRound to its end.
+ * Implementations must be fast: rollouts call them on every simulated turn.
+ */
+public interface PlayoutPolicy {
+
+    /**
+     * @param round Round with the current player about to draw (discard pile not empty)
+     * @return true to draw the top of the discard pile, false to draw from the stockpile
+     */
+    boolean drawFromDiscard(SimulatedRound round);
+
+    /**
+     * @param round Round with the current player holding the drawn card
+     * @return Index of the card in the current player's hand to discard
+     */
+    int chooseDiscard(SimulatedRound round);
+}
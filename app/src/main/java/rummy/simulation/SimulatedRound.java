@@ -0,0 +1,374 @@
+package rummy.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Headless, allocation-free model of a single two-player round, used for fast rollouts.
+ * Follows the same flow as Rummy.playARound: each turn draws from the stockpile or the discard
+ * pile, discards a card, then checks for a computer declaration (Rummy/Gin when every card is
+ * melded, Knock in Gin mode when deadwood is at most the knock threshold). The round ends on a
+ * declaration or when the stockpile is empty after a turn, and is scored with the same rules
+ * as ClassicRummyStrategy and GinRummyStrategy (including layoffs after a knock, if enabled).
+ * Players who keep trading the discard pile never run the stockpile down, so a round that
+ * reaches MAX_TURNS ends without points.
+ */
+public final class SimulatedRound {
+    /** Action: draw the top card of the stockpile */
+    public static final int DRAW_STOCK = CardMasks.DECK_SIZE;
+    /** Action: draw the top card of the discard pile */
+    public static final int DRAW_DISCARD = CardMasks.DECK_SIZE + 1;
+    // Any other action 0-51 discards that card
+
+    /** Turns after which a round is abandoned as a draw */
+    public static final int MAX_TURNS = 200;
+
+    /**
+     * How the round ended
+     */
+    public enum Outcome {
+        NONE, RUMMY, GIN, KNOCK, STOCK_EXHAUSTED, TURN_LIMIT
+    }
+
+    private final boolean ginMode;
+    private final int[] knockThresholds = new int[2];
+    private boolean layoffs;
+
+    private final long[] hands = new long[2];
+    private final int[] stock = new int[CardMasks.DECK_SIZE];
+    private int stockSize;
+    private final int[] discardPile = new int[CardMasks.DECK_SIZE];
+    private int discardSize;
+    private int currentPlayer;
+    private boolean awaitingDiscard;
+    private int turns;
+    private int lastDrawnCard = -1;
+    private boolean lastDrawFromDiscard;
+
+    private Outcome outcome = Outcome.NONE;
+    private int declarer = -1;
+    private final int[] points = new int[2];
+
+    public SimulatedRound(boolean ginMode, int knockThreshold) {
+        this.ginMode = ginMode;
+        this.knockThresholds[0] = knockThreshold;
+        this.knockThresholds[1] = knockThreshold;
+    }
+
+    /**
+     * Gives one player a different knock threshold (e.g. to compare two configurations)
+     */
+    public void setKnockThreshold(int player, int knockThreshold) {
+        knockThresholds[player] = knockThreshold;
+    }
+
+    /**
+     * Lets the opponent of a knocker lay off deadwood onto the knocker's melds
+     */
+    public void setLayoffs(boolean layoffs) {
+        this.layoffs = layoffs;
+    }
+
+    /**
+     * Overwrites this round with the state of another round of the same mode
+     */
+    public void copyFrom(SimulatedRound other) {
+        hands[0] = other.hands[0];
+        hands[1] = other.hands[1];
+        System.arraycopy(other.stock, 0, stock, 0, other.stockSize);
+        stockSize = other.stockSize;
+        System.arraycopy(other.discardPile, 0, discardPile, 0, other.discardSize);
+        discardSize = other.discardSize;
+        currentPlayer = other.currentPlayer;
+        awaitingDiscard = other.awaitingDiscard;
+        turns = other.turns;
+        lastDrawnCard = other.lastDrawnCard;
+        lastDrawFromDiscard = other.lastDrawFromDiscard;
+        outcome = other.outcome;
+        declarer = other.declarer;
+        points[0] = other.points[0];
+        points[1] = other.points[1];
+    }
+
+    public SimulatedRound copy() {
+        SimulatedRound copy = new SimulatedRound(ginMode, knockThresholds[0]);
+        copy.knockThresholds[1] = knockThresholds[1];
+        copy.layoffs = layoffs;
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    // ===== Setup =====
+
+    /**
+     * Sets up a round in progress
+     *
+     * @param hand0 Hand mask of player 0
+     * @param hand1 Hand mask of player 1
+     * @param stock Stockpile cards, bottom first (the last card is drawn next)
+     * @param stockSize Number of cards in stock
+     * @param discardPile Discard pile cards, bottom first (the last card is the top)
+     * @param discardSize Number of cards in discardPile
+     * @param currentPlayer Player to act
+     * @param awaitingDiscard true if the current player has drawn and must now discard
+     */
+    public void reset(long hand0, long hand1, int[] stock, int stockSize, int[] discardPile, int discardSize,
+                      int currentPlayer, boolean awaitingDiscard) {
+        this.hands[0] = hand0;
+        this.hands[1] = hand1;
+        System.arraycopy(stock, 0, this.stock, 0, stockSize);
+        this.stockSize = stockSize;
+        System.arraycopy(discardPile, 0, this.discardPile, 0, discardSize);
+        this.discardSize = discardSize;
+        this.currentPlayer = currentPlayer;
+        this.awaitingDiscard = awaitingDiscard;
+        this.turns = 0;
+        this.lastDrawnCard = -1;
+        this.lastDrawFromDiscard = false;
+        this.outcome = Outcome.NONE;
+        this.declarer = -1;
+        Arrays.fill(points, 0);
+    }
+
+    // ===== Queries =====
+
+    public boolean isGinMode() {
+        return ginMode;
+    }
+
+    public int getKnockThreshold(int player) {
+        return knockThresholds[player];
+    }
+
+    public long getHand(int player) {
+        return hands[player];
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isAwaitingDiscard() {
+        return awaitingDiscard;
+    }
+
+    public int getStockSize() {
+        return stockSize;
+    }
+
+    public int getDiscardSize() {
+        return discardSize;
+    }
+
+    /**
+     * @return Top card of the discard pile, or -1 if it is empty
+     */
+    public int getDiscardTop() {
+        return discardSize == 0 ? -1 : discardPile[discardSize - 1];
+    }
+
+    /**
+     * @return Card drawn by the latest draw action, or -1 if there was none since the last reset
+     */
+    public int getLastDrawnCard() {
+        return lastDrawnCard;
+    }
+
+    /**
+     * @return true if the latest draw action took the top of the discard pile
+     */
+    public boolean isLastDrawFromDiscard() {
+        return lastDrawFromDiscard;
+    }
+
+    /**
+     * @return Number of completed turns since the last reset
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    public boolean isOver() {
+        return outcome != Outcome.NONE;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return Player who declared, or -1 if the round did not end with a declaration
+     */
+    public int getDeclarer() {
+        return declarer;
+    }
+
+    /**
+     * @return Points the player earned this round (only meaningful once the round is over)
+     */
+    public int getPoints(int player) {
+        return points[player];
+    }
+
+    /**
+     * Writes the legal actions of the current player into out
+     *
+     * @return Number of legal actions
+     */
+    public int legalActions(int[] out) {
+        if (isOver()) return 0;
+        int n = 0;
+        if (!awaitingDiscard) {
+            if (stockSize > 0) out[n++] = DRAW_STOCK;
+            if (discardSize > 0) out[n++] = DRAW_DISCARD;
+            return n;
+        }
+        for (long hand = hands[currentPlayer]; hand != 0; hand &= hand - 1) {
+            out[n++] = Long.numberOfTrailingZeros(hand);
+        }
+        return n;
+    }
+
+    // ===== Play =====
+
+    /**
+     * Applies a draw or discard action for the current player
+     *
+     * @throws IllegalStateException if the action is not legal in the current state
+     */
+    public void apply(int action) {
+        if (isOver()) {
+            throw new IllegalStateException("Round is over");
+        }
+        if (!awaitingDiscard) {
+            if (action == DRAW_STOCK && stockSize > 0) {
+                lastDrawnCard = stock[--stockSize];
+            } else if (action == DRAW_DISCARD && discardSize > 0) {
+                lastDrawnCard = discardPile[--discardSize];
+            } else {
+                throw new IllegalStateException("Illegal draw action " + action);
+            }
+            hands[currentPlayer] |= 1L << lastDrawnCard;
+            lastDrawFromDiscard = action == DRAW_DISCARD;
+            awaitingDiscard = true;
+            return;
+        }
+
+        long cardBit = action >= 0 && action < CardMasks.DECK_SIZE ? 1L << action : 0;
+        if ((hands[currentPlayer] & cardBit) == 0) {
+            throw new IllegalStateException("Illegal discard action " + action);
+        }
+        hands[currentPlayer] &= ~cardBit;
+        discardPile[discardSize++] = action;
+        awaitingDiscard = false;
+        turns++;
+        endTurn();
+    }
+
+    /**
+     * Ends the current player's turn as if they had passed up a declaration after discarding:
+     * the round ends by stock exhaustion if the stockpile is empty, otherwise the other player moves.
+     *
+     * @throws IllegalStateException if the round is over or the current player still has to discard
+     */
+    public void passDeclaration() {
+        if (isOver() || awaitingDiscard) {
+            throw new IllegalStateException("No declaration to pass up");
+        }
+        if (stockSize == 0) {
+            finish(Outcome.STOCK_EXHAUSTED, -1);
+        } else {
+            currentPlayer = 1 - currentPlayer;
+        }
+    }
+
+    /**
+     * Plays the round to its end with the same policy for both players
+     */
+    public void playOut(PlayoutPolicy policy) {
+        playOut(policy, policy);
+    }
+
+    /**
+     * Plays the round to its end with a separate policy for each player
+     */
+    public void playOut(PlayoutPolicy policy0, PlayoutPolicy policy1) {
+        while (!isOver()) {
+            PlayoutPolicy policy = currentPlayer == 0 ? policy0 : policy1;
+            if (!awaitingDiscard) {
+                boolean fromDiscard = discardSize > 0 && (stockSize == 0 || policy.drawFromDiscard(this));
+                apply(fromDiscard ? DRAW_DISCARD : DRAW_STOCK);
+            }
+            apply(policy.chooseDiscard(this));
+        }
+    }
+
+    /**
+     * Declaration check and stock exhaustion check after a discard (see Rummy.playARound)
+     */
+    private void endTurn() {
+        long hand = hands[currentPlayer];
+        long melded = BitMeldAnalyzer.meldedCards(hand);
+        if (melded == hand) {
+            finish(ginMode ? Outcome.GIN : Outcome.RUMMY, currentPlayer);
+        } else if (ginMode && CardMasks.value(hand & ~melded) <= knockThresholds[currentPlayer]) {
+            finish(Outcome.KNOCK, currentPlayer);
+        } else if (stockSize == 0) {
+            finish(Outcome.STOCK_EXHAUSTED, -1);
+        } else if (turns >= MAX_TURNS) {
+            finish(Outcome.TURN_LIMIT, -1);
+        } else {
+            currentPlayer = 1 - currentPlayer;
+        }
+    }
+
+    private void finish(Outcome outcome, int declarer) {
+        this.outcome = outcome;
+        this.declarer = declarer;
+        score(outcome, declarer, finalDeadwood(0), finalDeadwood(1), points);
+    }
+
+    /**
+     * @return Deadwood value the player is scored with, after laying off onto a knocker's melds
+     */
+    private int finalDeadwood(int player) {
+        if (outcome == Outcome.KNOCK && layoffs && player != declarer) {
+            return LayoffCalculator.deadwoodAfterLayoff(BitMeldAnalyzer.meldedCards(hands[declarer]), hands[player]);
+        }
+        return BitMeldAnalyzer.deadwoodValue(hands[player]);
+    }
+
+    /**
+     * Round scoring shared by the simulation (same rules as the GameModeStrategy implementations)
+     *
+     * @param outcome How the round ended
+     * @param declarer Declaring player, or -1
+     * @param deadwood0 Deadwood value of player 0
+     * @param deadwood1 Deadwood value of player 1
+     * @param points Points earned by each player (will be mutated)
+     */
+    public static void score(Outcome outcome, int declarer, int deadwood0, int deadwood1, int[] points) {
+        int declarerDeadwood = declarer == 0 ? deadwood0 : deadwood1;
+        int opponentDeadwood = declarer == 0 ? deadwood1 : deadwood0;
+        switch (outcome) {
+            case RUMMY, GIN -> points[declarer] += opponentDeadwood;
+            case KNOCK -> {
+                int opponent = 1 - declarer;
+                if (declarerDeadwood < opponentDeadwood) {
+                    points[declarer] += opponentDeadwood - declarerDeadwood;
+                } else if (declarerDeadwood > opponentDeadwood) {
+                    // Undercut
+                    points[opponent] += declarerDeadwood - opponentDeadwood;
+                }
+            }
+            case STOCK_EXHAUSTED -> {
+                if (deadwood0 < deadwood1) {
+                    points[0] += deadwood1;
+                } else if (deadwood1 < deadwood0) {
+                    points[1] += deadwood0;
+                }
+            }
+            case NONE, TURN_LIMIT -> {
+            }
+        }
+    }
+}
@@ -18,8 +18,31 @@ public interface CardEvaluationStrategy {
      */
     boolean evaluate(Card drawnCard, Hand hand, Deck deck);
 
+    /**
+     * Evaluates whether a card already in the hand satisfies this criterion, as if it were
+     * drawn onto the hand without it. Used when choosing a discard; implementations should
+     * work from the facts shared in the context rather than rebuilding the hand.
+     *
+     * @param card A card of the context's hand
+     * @param context Facts computed once for the whole hand
+     * @return true if criterion is satisfied, false otherwise
+     */
+    default boolean evaluate(Card card, DiscardDecisionContext context) {
+        return evaluate(card, context.handWithout(card), context.getDeck());
+    }
+
     /**
      * @return The name of this criterion (e.g., "Criterion 1")
      */
     String getCriterionName();
+
+    /**
+     * Relative cost of evaluating this criterion.
+     * CardEvaluator runs cheaper criteria first so it can stop early when the answer is known.
+     *
+     * @return cost weight (criteria that run full meld analysis should report a higher cost)
+     */
+    default int getEvaluationCost() {
+        return 1;
+    }
 }
\ No newline at end of file
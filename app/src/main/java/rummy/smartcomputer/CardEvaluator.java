@@ -4,15 +4,36 @@ import ch.aplu.jcardgame.*;
 import rummy.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * Coordinator class that manages all card evaluation strategies.
  * Evaluates cards against multiple criteria and aggregates results.
+ * Criteria are run cheapest first, so callers that only need part of the answer
+ * (see EvaluationMode) can skip the expensive meld analyses.
  */
 public class CardEvaluator {
     private final List<CardEvaluationStrategy> strategies;
     private final Deck deck;
 
+    // Indexes into strategies, ordered by evaluation cost (cheapest first)
+    private final int[] evaluationOrder;
+    private final List<CriterionStatistics> statistics;
+
+    /**
+     * What the caller needs from an evaluation
+     */
+    public enum EvaluationMode {
+        /** Only whether any criterion is satisfied; stops at the first satisfied criterion */
+        ANY,
+        /** Exact number of satisfied criteria */
+        COUNT,
+        /** Result of every individual criterion */
+        FULL
+    }
+
     /**
      * Constructor with default strategies (all 4 criteria)
      */
@@ -25,6 +46,25 @@ public class CardEvaluator {
         strategies.add(new MinimumRankGapStrategy());
         strategies.add(new MaximumSuitCountStrategy());
         strategies.add(new DeadwoodRankCountStrategy());
+
+        this.evaluationOrder = orderByCost(strategies);
+
+        List<CriterionStatistics> stats = new ArrayList<>();
+        for (CardEvaluationStrategy strategy : strategies) {
+            stats.add(new CriterionStatistics(strategy.getCriterionName()));
+        }
+        this.statistics = Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * Stable sort of strategy indexes by their declared evaluation cost
+     */
+    private static int[] orderByCost(List<CardEvaluationStrategy> strategies) {
+        return IntStream.range(0, strategies.size())
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> strategies.get(i).getEvaluationCost()))
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 
     /**
@@ -35,20 +75,78 @@ public class CardEvaluator {
      * @return EvaluationResult containing all criteria results
      */
     public EvaluationResult evaluate(Card drawnCard, Hand hand) {
+        return evaluate(drawnCard, hand, EvaluationMode.FULL);
+    }
+
+    /**
+     * Evaluate a card, running only as many strategies as the mode requires
+     *
+     * @param drawnCard The card to evaluate
+     * @param hand The current hand (without drawn card)
+     * @param mode What the caller needs from the result
+     * @return EvaluationResult containing the criteria that were evaluated
+     */
+    public EvaluationResult evaluate(Card drawnCard, Hand hand, EvaluationMode mode) {
+        return evaluate(drawnCard, mode, strategy -> strategy.evaluate(drawnCard, hand, deck));
+    }
+
+    /**
+     * Evaluate keeping a card that is already in the context's hand, as a delta against the context
+     *
+     * @param card The candidate card (part of the context's hand)
+     * @param context Facts shared by every candidate of one discard decision
+     * @param mode What the caller needs from the result
+     * @return EvaluationResult containing the criteria that were evaluated
+     */
+    public EvaluationResult evaluate(Card card, DiscardDecisionContext context, EvaluationMode mode) {
+        return evaluate(card, mode, strategy -> strategy.evaluate(card, context));
+    }
+
+    private EvaluationResult evaluate(Card card, EvaluationMode mode, Predicate<CardEvaluationStrategy> criterion) {
         boolean[] criteriaResults = new boolean[strategies.size()];
+        boolean[] evaluated = new boolean[strategies.size()];
+
+        for (int i : evaluationOrder) {
+            if (mode == EvaluationMode.ANY && anySatisfied(criteriaResults)) {
+                statistics.get(i).skipped.increment();
+                continue;
+            }
 
-        for (int i = 0; i < strategies.size(); i++) {
             CardEvaluationStrategy strategy = strategies.get(i);
-            criteriaResults[i] = strategy.evaluate(drawnCard, hand, deck);
+            long start = System.nanoTime();
+            criteriaResults[i] = criterion.test(strategy);
+            statistics.get(i).record(System.nanoTime() - start, criteriaResults[i]);
+            evaluated[i] = true;
 
             // Debug logging
-            System.out.printf("[%s] Drawn: %s | Result: %b\n",
+            DebugLog.printf("[%s] Drawn: %s | Result: %b\n",
                     strategy.getCriterionName(),
-                    cardToString(drawnCard),
+                    cardToString(card),
                     criteriaResults[i]);
         }
 
-        return new EvaluationResult(criteriaResults);
+        return new EvaluationResult(criteriaResults, evaluated);
+    }
+
+    private static boolean anySatisfied(boolean[] results) {
+        for (boolean result : results) {
+            if (result) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Per-criterion call counts and timings, in strategy order
+     */
+    public List<CriterionStatistics> getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Clears all per-criterion call counts and timings
+     */
+    public void resetStatistics() {
+        statistics.forEach(CriterionStatistics::reset);
     }
 
     /**
@@ -65,9 +163,21 @@ public class CardEvaluator {
      */
     public static class EvaluationResult {
         private final boolean[] criteriaResults;
+        private final boolean[] evaluated;
 
         public EvaluationResult(boolean[] criteriaResults) {
+            this(criteriaResults, filled(criteriaResults.length));
+        }
+
+        public EvaluationResult(boolean[] criteriaResults, boolean[] evaluated) {
             this.criteriaResults = Arrays.copyOf(criteriaResults, criteriaResults.length);
+            this.evaluated = Arrays.copyOf(evaluated, evaluated.length);
+        }
+
+        private static boolean[] filled(int length) {
+            boolean[] all = new boolean[length];
+            Arrays.fill(all, true);
+            return all;
         }
 
         /**
@@ -82,13 +192,110 @@ public class CardEvaluator {
 
         /**
          * Count how many criteria are satisfied
+         *
+         * @throws IllegalStateException if some criteria were skipped (ANY mode)
          */
         public int getCriteriaCount() {
+            if (getEvaluatedCount() != evaluated.length) {
+                throw new IllegalStateException("Criteria count is not known: only "
+                        + getEvaluatedCount() + " of " + evaluated.length + " criteria were evaluated");
+            }
             int count = 0;
             for (boolean result : criteriaResults) {
                 if (result) count++;
             }
             return count;
         }
+
+        /**
+         * Result of a single criterion, in strategy order
+         *
+         * @throws IllegalStateException if that criterion was skipped
+         */
+        public boolean isSatisfied(int criterion) {
+            if (!evaluated[criterion]) {
+                throw new IllegalStateException("Criterion " + criterion + " was not evaluated");
+            }
+            return criteriaResults[criterion];
+        }
+
+        /**
+         * @return How many criteria were actually run
+         */
+        public int getEvaluatedCount() {
+            int count = 0;
+            for (boolean ran : evaluated) {
+                if (ran) count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Call counts and timings for a single criterion
+     */
+    public static class CriterionStatistics {
+        private final String criterionName;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder satisfied = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        CriterionStatistics(String criterionName) {
+            this.criterionName = criterionName;
+        }
+
+        void record(long nanos, boolean result) {
+            calls.increment();
+            totalNanos.add(nanos);
+            if (result) satisfied.increment();
+        }
+
+        void reset() {
+            calls.reset();
+            satisfied.reset();
+            skipped.reset();
+            totalNanos.reset();
+        }
+
+        public String getCriterionName() {
+            return criterionName;
+        }
+
+        /**
+         * @return Number of times the criterion was evaluated
+         */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * @return Number of evaluations that returned true
+         */
+        public long getSatisfiedCount() {
+            return satisfied.sum();
+        }
+
+        /**
+         * @return Number of evaluations skipped because the answer was already known
+         */
+        public long getSkippedCount() {
+            return skipped.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public double getAverageNanos() {
+            long n = getCalls();
+            return n == 0 ? 0.0 : (double) getTotalNanos() / n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: calls=%d, skipped=%d, satisfied=%d, avg=%.1fus",
+                    criterionName, getCalls(), getSkippedCount(), getSatisfiedCount(), getAverageNanos() / 1000.0);
+        }
     }
-}
\ No newline at end of file
+}
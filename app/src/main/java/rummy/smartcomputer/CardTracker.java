@@ -0,0 +1,196 @@
+package rummy.smartcomputer;
+
+import ch.aplu.jcardgame.*;
+import rummy.simulation.CardMasks;
+
+/**
+ * Remembers what one player has seen during a round, on 52-bit card masks:
+ * the discard pile, the discards the opponent picked up, the discards the opponent passed over
+ * and the cards the opponent threw away.
+ * From that it keeps an estimate, per unseen card, of the probability that the opponent holds it.
+ * All queries are O(1); the estimates are refreshed on every recorded event.
+ */
+public class CardTracker {
+    // Relative weight of an unseen card next to a card the opponent picked up
+    private static final double COLLECTING_WEIGHT = 3.0;
+    // Relative weight of an unseen card next to a card the opponent threw away or passed over
+    private static final double REJECTED_WEIGHT = 0.5;
+
+    private final int observer;
+
+    private long ownHand;
+    private long discardPile;
+    private long opponentKnownCards;
+    private long opponentRejectedCards;
+    private int opponentHandSize;
+
+    private long opponentCollecting;
+    private final double[] opponentProbabilities = new double[CardMasks.DECK_SIZE];
+
+    /**
+     * @param observer Index of the player whose view is tracked
+     */
+    public CardTracker(int observer) {
+        this.observer = observer;
+    }
+
+    // ===== Events =====
+
+    /**
+     * Resets the tracker after the deal
+     *
+     * @param ownHand The observer's dealt hand
+     * @param opponentHandSize Number of cards dealt to the opponent
+     */
+    public void startRound(Hand ownHand, int opponentHandSize) {
+        this.ownHand = CardMasks.toMask(ownHand);
+        this.discardPile = 0;
+        this.opponentKnownCards = 0;
+        this.opponentRejectedCards = 0;
+        this.opponentHandSize = opponentHandSize;
+        update();
+    }
+
+    /**
+     * Records a draw by either player
+     *
+     * @param player Player who drew
+     * @param card Drawn card (only looked at when it is public or drawn by the observer)
+     * @param fromDiscard true if the card was the top of the discard pile
+     * @param passedCard Top of the discard pile the player passed over, or null
+     */
+    public void recordDraw(int player, Card card, boolean fromDiscard, Card passedCard) {
+        long cardBit = CardMasks.bit(card);
+        if (fromDiscard) {
+            discardPile &= ~cardBit;
+        }
+
+        if (player == observer) {
+            ownHand |= cardBit;
+        } else {
+            opponentHandSize++;
+            if (fromDiscard) {
+                opponentKnownCards |= cardBit;
+            }
+            if (passedCard != null) {
+                opponentRejectedCards |= CardMasks.bit(passedCard);
+            }
+        }
+        update();
+    }
+
+    /**
+     * Records a discard by either player
+     */
+    public void recordDiscard(int player, Card card) {
+        long cardBit = CardMasks.bit(card);
+        discardPile |= cardBit;
+
+        if (player == observer) {
+            ownHand &= ~cardBit;
+        } else {
+            opponentHandSize--;
+            opponentKnownCards &= ~cardBit;
+            opponentRejectedCards |= cardBit;
+        }
+        update();
+    }
+
+    // ===== Queries =====
+
+    public int getObserver() {
+        return observer;
+    }
+
+    /**
+     * @return Cards currently in the discard pile
+     */
+    public long getDiscardPile() {
+        return discardPile;
+    }
+
+    /**
+     * @return Cards known to be in the opponent's hand (picked up from the discard pile)
+     */
+    public long getOpponentKnownCards() {
+        return opponentKnownCards;
+    }
+
+    /**
+     * @return Cards the opponent threw away or passed over this round
+     */
+    public long getOpponentRejectedCards() {
+        return opponentRejectedCards;
+    }
+
+    /**
+     * @return Cards whose location the observer does not know (opponent's hand or stockpile)
+     */
+    public long getUnseenCards() {
+        return CardMasks.FULL_DECK & ~(ownHand | discardPile | opponentKnownCards);
+    }
+
+    /**
+     * @return Estimated probability that the opponent holds the card
+     */
+    public double getOpponentProbability(Card card) {
+        return getOpponentProbability(CardMasks.index(card));
+    }
+
+    /**
+     * @param index Card index (see CardMasks)
+     * @return Estimated probability that the opponent holds the card
+     */
+    public double getOpponentProbability(int index) {
+        return opponentProbabilities[index];
+    }
+
+    /**
+     * @return true if the card would help the opponent build a meld with the cards they picked up
+     */
+    public boolean isOpponentCollecting(Card card) {
+        return (opponentCollecting & CardMasks.bit(card)) != 0;
+    }
+
+    /**
+     * @return Cards that would help the opponent build a meld with the cards they picked up
+     */
+    public long getOpponentCollectingCards() {
+        return opponentCollecting;
+    }
+
+    // ===== Estimates =====
+
+    private void update() {
+        opponentCollecting = CardMasks.meldPartners(opponentKnownCards) & ~opponentKnownCards;
+        long rejectedNeighbours = CardMasks.meldPartners(opponentRejectedCards) | opponentRejectedCards;
+        long unseen = getUnseenCards();
+
+        double totalWeight = 0;
+        for (long cards = unseen; cards != 0; cards &= cards - 1) {
+            int index = Long.numberOfTrailingZeros(cards);
+            totalWeight += weight(index, rejectedNeighbours);
+        }
+
+        int hiddenCards = Math.max(0, opponentHandSize - Long.bitCount(opponentKnownCards));
+        for (int index = 0; index < opponentProbabilities.length; index++) {
+            long bit = CardMasks.bit(index);
+            if ((opponentKnownCards & bit) != 0) {
+                opponentProbabilities[index] = 1.0;
+            } else if ((unseen & bit) != 0 && totalWeight > 0) {
+                opponentProbabilities[index] =
+                        Math.min(1.0, hiddenCards * weight(index, rejectedNeighbours) / totalWeight);
+            } else {
+                opponentProbabilities[index] = 0.0;
+            }
+        }
+    }
+
+    private double weight(int index, long rejectedNeighbours) {
+        long bit = CardMasks.bit(index);
+        double weight = 1.0;
+        if ((opponentCollecting & bit) != 0) weight *= COLLECTING_WEIGHT;
+        if ((rejectedNeighbours & bit) != 0) weight *= REJECTED_WEIGHT;
+        return weight;
+    }
+}
@@ -3,6 +3,7 @@ package rummy.smartcomputer;
 import ch.aplu.jcardgame.Card;
 import ch.aplu.jcardgame.Deck;
 import ch.aplu.jcardgame.Hand;
+import rummy.DebugLog;
 import rummy.MeldDetector;
 import rummy.Rank;
 
@@ -32,13 +33,29 @@ public class DeadwoodRankCountStrategy implements CardEvaluationStrategy {
 
         Rank drawnRank = (Rank) drawnCard.getRank();
         boolean result = rankCounts.getOrDefault(drawnRank, 0) > 1;
-        System.out.printf("[Criterion 4] Drawn: %s | Deadwood same rank count: %d -> %b\n",
+        DebugLog.printf("[Criterion 4] Drawn: %s | Deadwood same rank count: %d -> %b\n",
                 drawnCard, rankCounts.getOrDefault(drawnRank, 0), result);
         return result;
     }
 
+    @Override
+    public boolean evaluate(Card card, DiscardDecisionContext context) {
+        // Hand without the card plus the card is the full hand, which the context has analyzed
+        int sameRankCount = context.getDeadwoodRankCount((Rank) card.getRank());
+        boolean result = sameRankCount > 1;
+        DebugLog.printf("[Criterion 4] Drawn: %s | Deadwood same rank count: %d -> %b\n",
+                card, sameRankCount, result);
+        return result;
+    }
+
     @Override
     public String getCriterionName() {
-        return "ImmediateMeldStrategy";
+        return "DeadwoodRankCountStrategy";
+    }
+
+    @Override
+    public int getEvaluationCost() {
+        // Runs full meld analysis on the hand
+        return 10;
     }
 }
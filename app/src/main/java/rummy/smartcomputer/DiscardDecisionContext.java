@@ -0,0 +1,177 @@
+package rummy.smartcomputer;
+
+import ch.aplu.jcardgame.*;
+import rummy.MeldDetector;
+import rummy.Rank;
+import rummy.Suit;
+import rummy.simulation.CardMasks;
+
+import java.util.*;
+
+/**
+ * Facts about the hand of a single discard decision, computed once and shared by all candidates.
+ * Each candidate discard X is evaluated as "hand minus X, then X drawn back", which is a small
+ * delta against these facts rather than a fresh hand and a fresh meld analysis.
+ */
+public class DiscardDecisionContext {
+    private final Hand hand;
+    private final Deck deck;
+    private final CardTracker cardTracker;
+
+    private final MeldDetector.MeldAnalysis analysis;
+    private final Set<Card> deadwood;
+    private final int[] suitCounts = new int[Suit.values().length];
+    // Sorted rank values of the hand, per suit
+    private final int[][] suitRanks = new int[Suit.values().length][];
+    private final int[] suitMinimumGaps = new int[Suit.values().length];
+    // Indexed by rank short hand value (1-13)
+    private final int[] deadwoodRankCounts = new int[14];
+    // Batched discard choice of a LinearHandEvaluator, made on the first candidate it evaluates
+    private LinearHandEvaluator linearEvaluator;
+    private int linearDiscard;
+
+    /**
+     * @param hand The full hand (including the drawn card)
+     * @param deck The deck for creating temporary hands
+     */
+    public DiscardDecisionContext(Hand hand, Deck deck) {
+        this(hand, deck, null);
+    }
+
+    /**
+     * @param hand The full hand (including the drawn card)
+     * @param deck The deck for creating temporary hands
+     * @param cardTracker What the deciding player has seen this round, or null
+     */
+    public DiscardDecisionContext(Hand hand, Deck deck, CardTracker cardTracker) {
+        this.hand = hand;
+        this.deck = deck;
+        this.cardTracker = cardTracker;
+        this.analysis = MeldDetector.findBestMelds(hand);
+        this.deadwood = new HashSet<>(analysis.getDeadwood());
+
+        int[][] ranks = new int[suitRanks.length][hand.getNumberOfCards()];
+        for (Card c : hand.getCardList()) {
+            int suit = ((Suit) c.getSuit()).ordinal();
+            ranks[suit][suitCounts[suit]++] = ((Rank) c.getRank()).getShortHandValue();
+        }
+        for (int suit = 0; suit < suitRanks.length; suit++) {
+            suitRanks[suit] = Arrays.copyOf(ranks[suit], suitCounts[suit]);
+            Arrays.sort(suitRanks[suit]);
+            suitMinimumGaps[suit] = minimumRankGap(suitRanks[suit], -1);
+        }
+
+        for (Card c : analysis.getDeadwood()) {
+            deadwoodRankCounts[((Rank) c.getRank()).getShortHandValue()]++;
+        }
+    }
+
+    public Hand getHand() {
+        return hand;
+    }
+
+    public Deck getDeck() {
+        return deck;
+    }
+
+    /**
+     * @return What the deciding player has seen this round, or null if not tracked
+     */
+    public CardTracker getCardTracker() {
+        return cardTracker;
+    }
+
+    /**
+     * @return Best meld analysis of the full hand
+     */
+    public MeldDetector.MeldAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    public boolean isDeadwood(Card card) {
+        return deadwood.contains(card);
+    }
+
+    /**
+     * @return Number of cards of the suit in the full hand
+     */
+    public int getSuitCount(Suit suit) {
+        return suitCounts[suit.ordinal()];
+    }
+
+    /**
+     * @return Largest suit count of the hand once the given card is removed
+     */
+    public int getMaximumSuitCountWithout(Card card) {
+        int removedSuit = ((Suit) card.getSuit()).ordinal();
+        int max = 0;
+        for (int suit = 0; suit < suitCounts.length; suit++) {
+            int count = suit == removedSuit ? suitCounts[suit] - 1 : suitCounts[suit];
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * @return Minimum rank gap among the full hand's cards of the suit (Integer.MAX_VALUE if fewer than 2)
+     */
+    public int getMinimumRankGap(Suit suit) {
+        return suitMinimumGaps[suit.ordinal()];
+    }
+
+    /**
+     * @return Minimum rank gap among the card's suit once the card is removed (Integer.MAX_VALUE if fewer than 2)
+     */
+    public int getMinimumRankGapWithout(Card card) {
+        int suit = ((Suit) card.getSuit()).ordinal();
+        return minimumRankGap(suitRanks[suit], ((Rank) card.getRank()).getShortHandValue());
+    }
+
+    /**
+     * @return Number of deadwood cards of the full hand with the given rank
+     */
+    public int getDeadwoodRankCount(Rank rank) {
+        return deadwoodRankCounts[rank.getShortHandValue()];
+    }
+
+    /**
+     * @return Card index the evaluator would discard from the full hand, scored in one batch per
+     *         decision however many candidates ask
+     */
+    int getLinearDiscard(LinearHandEvaluator evaluator) {
+        if (linearEvaluator != evaluator) {
+            linearDiscard = evaluator.selectDiscard(CardMasks.toMask(hand), LinearHandEvaluator.deadCards(cardTracker));
+            linearEvaluator = evaluator;
+        }
+        return linearDiscard;
+    }
+
+    /**
+     * Builds the hand without the given card, for criteria that have no delta evaluation
+     */
+    public Hand handWithout(Card card) {
+        Hand tempHand = new Hand(deck);
+        for (Card c : hand.getCardList()) {
+            if (!c.equals(card)) {
+                tempHand.insert(c, false);
+            }
+        }
+        return tempHand;
+    }
+
+    /**
+     * Minimum gap between consecutive sorted ranks, skipping one rank value (-1 to skip none)
+     */
+    private static int minimumRankGap(int[] sortedRanks, int excludedRank) {
+        int minGap = Integer.MAX_VALUE;
+        int previous = -1;
+        for (int rank : sortedRanks) {
+            if (rank == excludedRank) continue;
+            if (previous != -1) {
+                minGap = Math.min(minGap, rank - previous - 1);
+            }
+            previous = rank;
+        }
+        return minGap;
+    }
+}
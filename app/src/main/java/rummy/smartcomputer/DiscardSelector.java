@@ -1,6 +1,7 @@
 package rummy.smartcomputer;
 
 import ch.aplu.jcardgame.*;
+import rummy.DebugLog;
 import rummy.MeldDetector;
 import rummy.Rank;
 import rummy.Suit;
@@ -14,9 +15,18 @@ import java.util.stream.Collectors;
  */
 public class DiscardSelector {
     private final CardEvaluator evaluator;
+    // Whether to avoid discarding cards the opponent is collecting
+    private final boolean defensive;
+    private final SmartPlayerConfig config;
 
     public DiscardSelector(CardEvaluator evaluator) {
+        this(evaluator, false, SmartPlayerConfig.DEFAULT);
+    }
+
+    public DiscardSelector(CardEvaluator evaluator, boolean defensive, SmartPlayerConfig config) {
         this.evaluator = evaluator;
+        this.defensive = defensive;
+        this.config = config;
     }
 
     /**
@@ -27,54 +37,73 @@ public class DiscardSelector {
      * @return The card to discard
      */
     public Card selectCardToDiscard(Hand hand, Deck deck) {
-        // Step 1: Find best melds and identify deadwood
-        MeldDetector.MeldAnalysis analysis = MeldDetector.findBestMelds(hand);
-        List<Card> deadwood = analysis.getDeadwood();
+        return selectCardToDiscard(hand, deck, null);
+    }
+
+    /**
+     * Select the best card to discard from the hand
+     *
+     * @param hand The current hand (14 cards including drawn card)
+     * @param deck The deck for creating temporary hands
+     * @param cardTracker What the player has seen this round, or null
+     * @return The card to discard
+     */
+    public Card selectCardToDiscard(Hand hand, Deck deck, CardTracker cardTracker) {
+        // Step 1: Analyze the hand once for the whole decision and identify deadwood
+        DiscardDecisionContext context = new DiscardDecisionContext(hand, deck, cardTracker);
+        List<Card> deadwood = context.getAnalysis().getDeadwood();
 
         if (deadwood.isEmpty()) {
-            System.out.println("[Discard Selection] No deadwood, fallback to first card in hand.");
+            DebugLog.println("[Discard Selection] No deadwood, fallback to first card in hand.");
             return hand.getCardList().getFirst();
         }
 
-        System.out.println("[Discard Selection] Deadwood cards: " + deadwood.size());
+        DebugLog.println("[Discard Selection] Deadwood cards: " + deadwood.size());
 
         // Step 2: Evaluate each deadwood card
         Map<Card, CardEvaluator.EvaluationResult> evaluations = new HashMap<>();
 
         for (Card card : deadwood) {
-            // Create temporary hand without this card
-            Hand tempHand = new Hand(deck);
-            for (Card c : hand.getCardList()) {
-                if (!c.equals(card)) {
-                    tempHand.insert(c, false);
-                }
-            }
-
             // Evaluate what would happen if we kept this card
-            CardEvaluator.EvaluationResult eval = evaluator.evaluate(card, tempHand);
+            CardEvaluator.EvaluationResult eval =
+                    evaluator.evaluate(card, context, CardEvaluator.EvaluationMode.COUNT);
             evaluations.put(card, eval);
 
             // Debug output
-            System.out.printf("[Discard Evaluation] Card: %s | Criteria Satisfied: %d\n",
-                    cardToString(card), eval.getCriteriaCount());
+            DebugLog.printf("[Discard Evaluation] Card: %s | Criteria Satisfied: %d (score %.2f)\n",
+                    cardToString(card), eval.getCriteriaCount(), config.score(eval));
         }
 
-        // Step 3: Find cards with the least criteria satisfied
-        int minCriteria = evaluations.values().stream()
-                .mapToInt(CardEvaluator.EvaluationResult::getCriteriaCount)
+        // Step 3: Find cards with the lowest weighted criteria score (the fewest criteria with default weights)
+        double minScore = evaluations.values().stream()
+                .mapToDouble(config::score)
                 .min()
                 .orElse(0);
 
         List<Card> leastCriteriaCards = deadwood.stream()
-                .filter(c -> evaluations.get(c).getCriteriaCount() == minCriteria)
+                .filter(c -> config.score(evaluations.get(c)) == minScore)
                 .toList();
 
-        System.out.printf("[Discard Tie-break] Cards with least criteria (%d): ", minCriteria);
-        leastCriteriaCards.forEach(c -> System.out.print(cardToString(c) + " "));
-        System.out.println();
+        // Defensive play: don't feed the opponent unless every candidate would
+        if (defensive && cardTracker != null) {
+            List<Card> safeCards = leastCriteriaCards.stream()
+                    .filter(c -> !cardTracker.isOpponentCollecting(c))
+                    .toList();
+            if (!safeCards.isEmpty() && safeCards.size() < leastCriteriaCards.size()) {
+                DebugLog.printf("[Discard Defense] Keeping %d card(s) the opponent is collecting\n",
+                        leastCriteriaCards.size() - safeCards.size());
+                leastCriteriaCards = safeCards;
+            }
+        }
+
+        if (DebugLog.isEnabled()) {
+            DebugLog.printf("[Discard Tie-break] Cards with least criteria (score %.2f): ", minScore);
+            leastCriteriaCards.forEach(c -> DebugLog.print(cardToString(c) + " "));
+            DebugLog.println();
+        }
 
         if (leastCriteriaCards.size() == 1) {
-            System.out.println("[Discard Selection] Only one card with least criteria: "
+            DebugLog.println("[Discard Selection] Only one card with least criteria: "
                     + cardToString(leastCriteriaCards.getFirst()));
             return leastCriteriaCards.getFirst();
         }
@@ -92,16 +121,18 @@ public class DiscardSelector {
                 .filter(c -> suitFrequencies.get((Suit) c.getSuit()) == minFreq)
                 .toList();
 
-        System.out.print("[Discard Tie-break] Cards with least frequent suit: ");
-        leastFrequentSuitCards.forEach(c -> System.out.print(cardToString(c) + " "));
-        System.out.println();
+        if (DebugLog.isEnabled()) {
+            DebugLog.print("[Discard Tie-break] Cards with least frequent suit: ");
+            leastFrequentSuitCards.forEach(c -> DebugLog.print(cardToString(c) + " "));
+            DebugLog.println();
+        }
 
         // Step 5: Final tie-break by HIGHEST card value
         Card selectedCard = leastFrequentSuitCards.stream()
                 .max(Comparator.comparingInt(MeldDetector::getCardValue))
                 .orElse(leastFrequentSuitCards.getFirst());
 
-        System.out.println("[Discard Selection] Card selected (highest value): "
+        DebugLog.println("[Discard Selection] Card selected (highest value): "
                 + cardToString(selectedCard));
 
         return selectedCard;
@@ -3,6 +3,7 @@ package rummy.smartcomputer;
 import ch.aplu.jcardgame.Card;
 import ch.aplu.jcardgame.Deck;
 import ch.aplu.jcardgame.Hand;
+import rummy.DebugLog;
 import rummy.MeldDetector;
 
 public class ImmediateMeldStrategy implements CardEvaluationStrategy {
@@ -19,13 +20,33 @@ public class ImmediateMeldStrategy implements CardEvaluationStrategy {
         MeldDetector.MeldAnalysis newAnalysis = MeldDetector.findBestMelds(tempHand);
 
         boolean result = newAnalysis.getTotalMeldedCards() > originalAnalysis.getTotalMeldedCards();
-        System.out.printf("[Criterion 1] Drawn: %s | MeldedCards before: %d, after: %d -> %b\n",
+        DebugLog.printf("[Criterion 1] Drawn: %s | MeldedCards before: %d, after: %d -> %b\n",
                 drawnCard, originalAnalysis.getTotalMeldedCards(), newAnalysis.getTotalMeldedCards(), result);
         return result;
     }
 
+    @Override
+    public boolean evaluate(Card card, DiscardDecisionContext context) {
+        if (!context.isDeadwood(card)) {
+            return CardEvaluationStrategy.super.evaluate(card, context);
+        }
+
+        // The best melds of the full hand do not use a deadwood card, so they are still
+        // available without it: keeping the card cannot add melded cards
+        int meldedCards = context.getAnalysis().getTotalMeldedCards();
+        DebugLog.printf("[Criterion 1] Drawn: %s | MeldedCards before: %d, after: %d -> %b\n",
+                card, meldedCards, meldedCards, false);
+        return false;
+    }
+
     @Override
     public String getCriterionName() {
         return "ImmediateMeldStrategy";
     }
+
+    @Override
+    public int getEvaluationCost() {
+        // Runs full meld analysis twice (with and without the drawn card)
+        return 20;
+    }
 }
@@ -0,0 +1,280 @@
+package rummy.smartcomputer;
+
+import ch.aplu.jcardgame.*;
+import rummy.DebugLog;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Scores hands with a linear model over hand features (see FEATURES), computed on card masks.
+ * A higher score is a better hand.
+ *
+ * A discard decision extracts the features of every candidate hand (the hand without one card)
+ * into one packed float matrix, one row per candidate, and scores all rows with a single
+ * matrix-vector product. The buffers are allocated once per evaluator, so decisions do not
+ * allocate; an evaluator must therefore not be shared between threads.
+ *
+ * As a CardEvaluationStrategy the criterion is satisfied when the card would not be the
+ * best discard of the hand with it. Within a DiscardSelector decision the candidates share one
+ * batch, cached in the DiscardDecisionContext.
+ */
+public class LinearHandEvaluator implements CardEvaluationStrategy {
+    /** Feature names, in feature vector order */
+    public static final String[] FEATURES = {
+            "melded_cards", "deadwood_value", "deadwood_cards", "near_runs", "near_sets",
+            "max_suit_count", "suits_held", "live_outs", "dead_outs"
+    };
+    public static final int FEATURE_COUNT = FEATURES.length;
+
+    private static final int MELDED_CARDS = 0;
+    private static final int DEADWOOD_VALUE = 1;
+    private static final int DEADWOOD_CARDS = 2;
+    private static final int NEAR_RUNS = 3;
+    private static final int NEAR_SETS = 4;
+    private static final int MAX_SUIT_COUNT = 5;
+    private static final int SUITS_HELD = 6;
+    private static final int LIVE_OUTS = 7;
+    private static final int DEAD_OUTS = 8;
+
+    private static final float[] DEFAULT_WEIGHTS = {
+            1.0f, -0.1f, -0.2f, 0.6f, 0.5f, 0.1f, -0.05f, 0.15f, -0.1f
+    };
+    private static final String WEIGHT_KEY = "linear.weight.";
+
+    // A hand holds at most 14 cards, so a decision has at most 14 candidates
+    private static final int MAX_CANDIDATES = 14;
+    private static final long SUIT_MASK = (1L << CardMasks.RANKS) - 1;
+    // Cards that have a next (or second next) rank in their suit, so shifted masks stay in the suit
+    private static final long HAS_NEXT_RANK;
+    private static final long HAS_SECOND_NEXT_RANK;
+
+    static {
+        long hasNext = 0;
+        long hasSecondNext = 0;
+        for (int suit = 0; suit < CardMasks.SUITS; suit++) {
+            hasNext |= (SUIT_MASK >>> 1) << (suit * CardMasks.RANKS);
+            hasSecondNext |= (SUIT_MASK >>> 2) << (suit * CardMasks.RANKS);
+        }
+        HAS_NEXT_RANK = hasNext;
+        HAS_SECOND_NEXT_RANK = hasSecondNext;
+    }
+
+    private final float[] weights;
+    private final float[] features = new float[MAX_CANDIDATES * FEATURE_COUNT];
+    private final float[] scores = new float[MAX_CANDIDATES];
+    private final int[] candidates = new int[MAX_CANDIDATES];
+
+    public LinearHandEvaluator() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+    /**
+     * @param weights Weight of each feature, in FEATURES order
+     */
+    public LinearHandEvaluator(float[] weights) {
+        if (weights.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Reads the weights from linear.weight.[feature] properties, defaulting missing ones
+     */
+    public static LinearHandEvaluator fromProperties(Properties properties) {
+        float[] weights = new float[FEATURE_COUNT];
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            weights[i] = Float.parseFloat(properties.getProperty(WEIGHT_KEY + FEATURES[i],
+                    String.valueOf(DEFAULT_WEIGHTS[i])));
+        }
+        return new LinearHandEvaluator(weights);
+    }
+
+    public float[] getWeights() {
+        return weights.clone();
+    }
+
+    // ===== CardEvaluationStrategy =====
+
+    @Override
+    public boolean evaluate(Card drawnCard, Hand hand, Deck deck) {
+        return keeps(CardMasks.index(drawnCard), CardMasks.toMask(hand), 0);
+    }
+
+    @Override
+    public boolean evaluate(Card card, DiscardDecisionContext context) {
+        int cardIndex = CardMasks.index(card);
+        return logResult(cardIndex, context.getLinearDiscard(this) != cardIndex);
+    }
+
+    @Override
+    public String getCriterionName() {
+        return "LinearHandEvaluator";
+    }
+
+    @Override
+    public int getEvaluationCost() {
+        // One meld analysis per candidate discard
+        return 30;
+    }
+
+    private boolean keeps(int card, long hand, long deadCards) {
+        return logResult(card, selectDiscard(hand | CardMasks.bit(card), deadCards) != card);
+    }
+
+    private static boolean logResult(int card, boolean keeps) {
+        if (DebugLog.isEnabled()) {
+            DebugLog.printf("[Linear] Card: %s -> %b\n", CardMasks.toString(card), keeps);
+        }
+        return keeps;
+    }
+
+    // ===== Discard decisions =====
+
+    /**
+     * Select the card to discard from the hand
+     *
+     * @param hand The current hand (including the drawn card)
+     * @param cardTracker What the player has seen this round, or null
+     * @return The card whose removal leaves the best-scoring hand
+     */
+    public Card selectCardToDiscard(Hand hand, CardTracker cardTracker) {
+        int selected = selectDiscard(CardMasks.toMask(hand), deadCards(cardTracker));
+        if (DebugLog.isEnabled()) {
+            DebugLog.printf("[Linear Discard] Card selected: %s (score %.2f)\n",
+                    CardMasks.toString(selected), bestScore());
+        }
+        return CardMasks.findCard(hand, selected);
+    }
+
+    /**
+     * Scores the hand without each of its cards in one batch
+     *
+     * @param hand Hand mask (including the drawn card)
+     * @param deadCards Cards that can no longer be drawn (discard pile, cards the opponent holds)
+     * @return Index of the card whose removal leaves the best-scoring hand (the higher value on equal scores)
+     */
+    public int selectDiscard(long hand, long deadCards) {
+        int count = scoreDiscards(hand, deadCards);
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (scores[i] > scores[best]
+                    || (scores[i] == scores[best] && CardMasks.value(candidates[i]) > CardMasks.value(candidates[best]))) {
+                best = i;
+            }
+        }
+        // Keep the winner first so bestScore can report it
+        swap(0, best);
+        return candidates[0];
+    }
+
+    /**
+     * Fills the candidate and score buffers for every card of the hand
+     *
+     * @return Number of candidates
+     */
+    private int scoreDiscards(long hand, long deadCards) {
+        int count = 0;
+        for (long cards = hand; cards != 0 && count < MAX_CANDIDATES; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            candidates[count] = card;
+            extractFeatures(hand & ~CardMasks.bit(card), deadCards, features, count * FEATURE_COUNT);
+            count++;
+        }
+
+        // Matrix-vector product over the packed rows
+        for (int row = 0; row < count; row++) {
+            int offset = row * FEATURE_COUNT;
+            float score = 0;
+            for (int f = 0; f < FEATURE_COUNT; f++) {
+                score += features[offset + f] * weights[f];
+            }
+            scores[row] = score;
+        }
+        return count;
+    }
+
+    /**
+     * @return Score of a single hand
+     */
+    public float score(long hand, long deadCards) {
+        extractFeatures(hand, deadCards, features, 0);
+        float score = 0;
+        for (int f = 0; f < FEATURE_COUNT; f++) {
+            score += features[f] * weights[f];
+        }
+        return score;
+    }
+
+    private float bestScore() {
+        return scores[0];
+    }
+
+    private void swap(int i, int j) {
+        int card = candidates[i];
+        candidates[i] = candidates[j];
+        candidates[j] = card;
+        float score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    // ===== Features =====
+
+    /**
+     * Writes the FEATURE_COUNT features of the hand into out, starting at offset
+     *
+     * @param hand Hand mask
+     * @param deadCards Cards that can no longer be drawn
+     */
+    public static void extractFeatures(long hand, long deadCards, float[] out, int offset) {
+        long melded = BitMeldAnalyzer.meldedCards(hand);
+        long deadwood = hand & ~melded;
+
+        out[offset + MELDED_CARDS] = Long.bitCount(melded);
+        out[offset + DEADWOOD_VALUE] = CardMasks.value(deadwood);
+        out[offset + DEADWOOD_CARDS] = Long.bitCount(deadwood);
+
+        // Deadwood pairs one card short of a run: neighbours, or one rank apart
+        out[offset + NEAR_RUNS] = Long.bitCount(deadwood & HAS_NEXT_RANK & (deadwood >>> 1))
+                + Long.bitCount(deadwood & HAS_SECOND_NEXT_RANK & (deadwood >>> 2));
+
+        // Deadwood pairs of the same rank, and the suit histogram
+        int nearSets = 0;
+        int maxSuitCount = 0;
+        int suitsHeld = 0;
+        for (int suit = 0; suit < CardMasks.SUITS; suit++) {
+            long suitDeadwood = (deadwood >>> (suit * CardMasks.RANKS)) & SUIT_MASK;
+            for (int other = suit + 1; other < CardMasks.SUITS; other++) {
+                nearSets += Long.bitCount(suitDeadwood & (deadwood >>> (other * CardMasks.RANKS)));
+            }
+            int suitCount = Long.bitCount(hand & (SUIT_MASK << (suit * CardMasks.RANKS)));
+            maxSuitCount = Math.max(maxSuitCount, suitCount);
+            if (suitCount > 0) suitsHeld++;
+        }
+        out[offset + NEAR_SETS] = nearSets;
+        out[offset + MAX_SUIT_COUNT] = maxSuitCount;
+        out[offset + SUITS_HELD] = suitsHeld;
+
+        // Cards that could meld with the deadwood, split by whether they can still be drawn
+        long outs = CardMasks.meldPartners(deadwood) & ~hand;
+        out[offset + LIVE_OUTS] = Long.bitCount(outs & ~deadCards);
+        out[offset + DEAD_OUTS] = Long.bitCount(outs & deadCards);
+    }
+
+    /**
+     * @return Cards the tracker knows cannot be drawn from the stockpile (0 without a tracker)
+     */
+    static long deadCards(CardTracker cardTracker) {
+        if (cardTracker == null) return 0;
+        return cardTracker.getDiscardPile() | cardTracker.getOpponentKnownCards();
+    }
+
+    @Override
+    public String toString() {
+        return "LinearHandEvaluator" + Arrays.toString(weights);
+    }
+}
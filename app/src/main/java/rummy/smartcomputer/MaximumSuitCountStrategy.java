@@ -3,6 +3,7 @@ package rummy.smartcomputer;
 import ch.aplu.jcardgame.Card;
 import ch.aplu.jcardgame.Deck;
 import ch.aplu.jcardgame.Hand;
+import rummy.DebugLog;
 import rummy.Suit;
 
 import java.util.HashMap;
@@ -23,11 +24,23 @@ public class MaximumSuitCountStrategy implements CardEvaluationStrategy {
         int drawnSuitCount = suitCounts.getOrDefault(drawnSuit, 0) + 1;
 
         boolean result = drawnSuitCount > currentMaxCount;
-        System.out.printf("[Criterion 3] Drawn: %s | Suit: %s | Count before: %d, after: %d -> %b\n",
+        DebugLog.printf("[Criterion 3] Drawn: %s | Suit: %s | Count before: %d, after: %d -> %b\n",
                 drawnCard, drawnSuit, suitCounts.getOrDefault(drawnSuit, 0), drawnSuitCount, result);
         return result;
     }
 
+    @Override
+    public boolean evaluate(Card card, DiscardDecisionContext context) {
+        Suit suit = (Suit) card.getSuit();
+        int currentMaxCount = context.getMaximumSuitCountWithout(card);
+        int suitCount = context.getSuitCount(suit);
+
+        boolean result = suitCount > currentMaxCount;
+        DebugLog.printf("[Criterion 3] Drawn: %s | Suit: %s | Count before: %d, after: %d -> %b\n",
+                card, suit, suitCount - 1, suitCount, result);
+        return result;
+    }
+
     @Override
     public String getCriterionName() {
         return "MaximumSuitCountStrategy";
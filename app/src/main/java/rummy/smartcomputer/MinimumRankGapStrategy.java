@@ -3,6 +3,7 @@ package rummy.smartcomputer;
 import ch.aplu.jcardgame.Card;
 import ch.aplu.jcardgame.Deck;
 import ch.aplu.jcardgame.Hand;
+import rummy.DebugLog;
 import rummy.Rank;
 import rummy.Suit;
 
@@ -19,7 +20,7 @@ public class MinimumRankGapStrategy implements CardEvaluationStrategy {
                 .collect(Collectors.toList());
 
         if (handSuitCards.isEmpty()) {
-            System.out.printf("[Criterion 2] Drawn: %s | Only card in suit (TRUE)\n", drawnCard);
+            DebugLog.printf("[Criterion 2] Drawn: %s | Only card in suit (TRUE)\n", drawnCard);
             return true;
         }
         // Clone and add drawnCard for the "after" check
@@ -30,11 +31,28 @@ public class MinimumRankGapStrategy implements CardEvaluationStrategy {
         int newMinGap = calculateMinimumRankGap(withDrawn);
 
         boolean result = newMinGap < originalMinGap;
-        System.out.printf("[Criterion 2] Drawn: %s | MinGap before: %d, after: %d -> %b\n",
+        DebugLog.printf("[Criterion 2] Drawn: %s | MinGap before: %d, after: %d -> %b\n",
                 drawnCard, originalMinGap, newMinGap, result);
         return result;
     }
 
+    @Override
+    public boolean evaluate(Card card, DiscardDecisionContext context) {
+        Suit suit = (Suit) card.getSuit();
+        if (context.getSuitCount(suit) == 1) {
+            DebugLog.printf("[Criterion 2] Drawn: %s | Only card in suit (TRUE)\n", card);
+            return true;
+        }
+
+        int originalMinGap = context.getMinimumRankGapWithout(card);
+        int newMinGap = context.getMinimumRankGap(suit);
+
+        boolean result = newMinGap < originalMinGap;
+        DebugLog.printf("[Criterion 2] Drawn: %s | MinGap before: %d, after: %d -> %b\n",
+                card, originalMinGap, newMinGap, result);
+        return result;
+    }
+
     private static int calculateMinimumRankGap(List<Card> sameSuitCards) {
         if (sameSuitCards.size() < 2) return Integer.MAX_VALUE;
 
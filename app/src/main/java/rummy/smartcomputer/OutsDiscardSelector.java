@@ -0,0 +1,108 @@
+package rummy.smartcomputer;
+
+import ch.aplu.jcardgame.*;
+import rummy.DebugLog;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+
+/**
+ * Alternative discard policy based on outs (unseen cards that would improve the hand).
+ * For every candidate discard it computes the expected deadwood after the next draw and the
+ * discard that follows it, weighting each unseen card by the probability of drawing it.
+ * The card with the lowest expectation is discarded.
+ *
+ * Only draws that can share a meld with the remaining hand need a meld analysis; the precomputed
+ * meld partner table (CardMasks.meldPartners) finds them, and every other draw is resolved arithmetically.
+ */
+public class OutsDiscardSelector {
+    private final double[] drawWeights = new double[CardMasks.DECK_SIZE];
+
+    /**
+     * Select the card to discard from the hand
+     *
+     * @param hand The current hand (including the drawn card)
+     * @param cardTracker What the player has seen this round, or null to treat every other card as unseen
+     * @return The card to discard
+     */
+    public Card selectCardToDiscard(Hand hand, CardTracker cardTracker) {
+        long handMask = CardMasks.toMask(hand);
+        long unseen;
+        if (cardTracker != null) {
+            unseen = cardTracker.getUnseenCards() & ~handMask;
+            // The next draw comes from the stockpile, which holds whatever the opponent does not
+            for (long cards = unseen; cards != 0; cards &= cards - 1) {
+                int card = Long.numberOfTrailingZeros(cards);
+                drawWeights[card] = 1.0 - cardTracker.getOpponentProbability(card);
+            }
+        } else {
+            unseen = CardMasks.FULL_DECK & ~handMask;
+            for (long cards = unseen; cards != 0; cards &= cards - 1) {
+                drawWeights[Long.numberOfTrailingZeros(cards)] = 1.0;
+            }
+        }
+
+        int selected = selectDiscard(handMask, unseen, drawWeights);
+        DebugLog.println("[Outs Discard] Card selected: " + CardMasks.toString(selected));
+        return CardMasks.findCard(hand, selected);
+    }
+
+    /**
+     * @param hand Hand mask (including the drawn card)
+     * @param unseen Cards that could be drawn next
+     * @param drawWeights Relative probability of drawing each unseen card, indexed by card
+     * @return Index of the card whose discard minimises the expected deadwood after the next draw
+     */
+    public static int selectDiscard(long hand, long unseen, double[] drawWeights) {
+        int best = -1;
+        double bestExpected = Double.MAX_VALUE;
+        for (long cards = hand; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            double expected = expectedDeadwood(hand & ~CardMasks.bit(card), unseen, drawWeights);
+            // On equal expectations shed the higher value
+            if (expected < bestExpected
+                    || (expected == bestExpected && CardMasks.value(card) > CardMasks.value(best))) {
+                bestExpected = expected;
+                best = card;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Expected deadwood value of the hand after drawing one unseen card and discarding optimally
+     * (the highest deadwood card of the new arrangement)
+     */
+    public static double expectedDeadwood(long hand, long unseen, double[] drawWeights) {
+        long deadwood = BitMeldAnalyzer.deadwood(hand);
+        int deadwoodValue = CardMasks.value(deadwood);
+        int highestDeadwood = highestValue(deadwood);
+
+        double total = 0;
+        double totalWeight = 0;
+        for (long cards = unseen; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            double weight = drawWeights[card];
+            if (weight <= 0) continue;
+
+            int after;
+            if ((CardMasks.meldPartners(card) & hand) == 0) {
+                // Cannot meld: either throw it straight back or keep it instead of the worst deadwood
+                after = Math.min(deadwoodValue, deadwoodValue - highestDeadwood + CardMasks.value(card));
+            } else {
+                long newDeadwood = BitMeldAnalyzer.deadwood(hand | CardMasks.bit(card));
+                after = CardMasks.value(newDeadwood) - highestValue(newDeadwood);
+            }
+            total += weight * after;
+            totalWeight += weight;
+        }
+        return totalWeight > 0 ? total / totalWeight : deadwoodValue;
+    }
+
+    private static int highestValue(long cards) {
+        int highest = 0;
+        for (; cards != 0; cards &= cards - 1) {
+            highest = Math.max(highest, CardMasks.value(Long.numberOfTrailingZeros(cards)));
+        }
+        return highest;
+    }
+}
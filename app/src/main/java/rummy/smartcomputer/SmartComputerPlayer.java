@@ -1,8 +1,15 @@
 package rummy.smartcomputer;
 
 import ch.aplu.jcardgame.*;
+import rummy.DebugLog;
 import rummy.Rank;
 import rummy.Suit;
+import rummy.simulation.CardMasks;
+import rummy.simulation.OpeningHandTable;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
 
 /**
  * Smart computer player that uses evaluation strategies to make intelligent decisions.
@@ -11,13 +18,45 @@ import rummy.Suit;
 public class SmartComputerPlayer {
     private final CardEvaluator evaluator;
     private final DiscardSelector discardSelector;
+    // Alternative discard policy (null when the criteria-based selector is used)
+    private final OutsDiscardSelector outsDiscardSelector;
+    private final LinearHandEvaluator linearEvaluator;
+    private final SmartPlayerConfig config;
+    // Precomputed strength of dealt hands (null when no table is configured)
+    private final OpeningHandTable openingHandTable;
 
     /**
      * Constructor with default configuration
      */
     public SmartComputerPlayer(Deck deck) {
+        this(deck, new Properties());
+    }
+
+    /**
+     * Configuration (all optional):
+     *   computer_defensive       Avoid discarding cards the opponent is collecting (default false)
+     *   computer_discard_policy  "criteria" (default), "outs" for OutsDiscardSelector
+     *                            or "linear" for LinearHandEvaluator (weights from linear.weight.*)
+     *   computer_smart.config    Path of a SmartPlayerConfig file (e.g. written by SelfPlayTuner)
+     *   computer_opening_table   Path of a table written by OpeningHandTableGenerator
+     *
+     * @param deck The deck for creating temporary hands
+     * @param properties Game properties
+     */
+    public SmartComputerPlayer(Deck deck, Properties properties) {
+        boolean defensive = Boolean.parseBoolean(properties.getProperty("computer_defensive", "false"));
+        String discardPolicy = properties.getProperty("computer_discard_policy", "criteria");
+        String configPath = properties.getProperty("computer_smart.config");
+        this.config = configPath == null ? SmartPlayerConfig.DEFAULT : SmartPlayerConfig.load(Path.of(configPath));
+        DebugLog.println("[Smart Player] Configuration: " + config);
+        String tablePath = properties.getProperty("computer_opening_table");
+        this.openingHandTable = tablePath == null ? null : OpeningHandTable.load(Path.of(tablePath));
+
         this.evaluator = new CardEvaluator(deck);
-        this.discardSelector = new DiscardSelector(evaluator);
+        this.discardSelector = new DiscardSelector(evaluator, defensive, config);
+        this.outsDiscardSelector = "outs".equalsIgnoreCase(discardPolicy) ? new OutsDiscardSelector() : null;
+        this.linearEvaluator = "linear".equalsIgnoreCase(discardPolicy)
+                ? LinearHandEvaluator.fromProperties(properties) : null;
     }
 
     /**
@@ -25,14 +64,21 @@ public class SmartComputerPlayer {
      *
      * @param drawnCard The card being evaluated
      * @param hand The current hand (without drawn card)
-     * @return true if any criterion is satisfied, false otherwise
+     * @return true if the weighted criteria reach the keep threshold (any criterion with default weights)
      */
     public boolean shouldKeepCard(Card drawnCard, Hand hand) {
-        CardEvaluator.EvaluationResult result = evaluator.evaluate(drawnCard, hand);
-        boolean shouldKeep = result.satisfiesAnyCriterion();
+        boolean shouldKeep;
+        CardEvaluator.EvaluationResult result;
+        if (config.keepsOnAnyCriterion()) {
+            result = evaluator.evaluate(drawnCard, hand, CardEvaluator.EvaluationMode.ANY);
+            shouldKeep = result.satisfiesAnyCriterion();
+        } else {
+            result = evaluator.evaluate(drawnCard, hand, CardEvaluator.EvaluationMode.COUNT);
+            shouldKeep = config.score(result) >= config.getKeepThreshold();
+        }
 
-        System.out.printf("[Smart Player] Card: %s | Should Keep: %b (Criteria: %d/4)\n",
-                cardToString(drawnCard), shouldKeep, result.getCriteriaCount());
+        DebugLog.printf("[Smart Player] Card: %s | Should Keep: %b (Criteria evaluated: %d/4)\n",
+                cardToString(drawnCard), shouldKeep, result.getEvaluatedCount());
 
         return shouldKeep;
     }
@@ -47,6 +93,58 @@ public class SmartComputerPlayer {
         return discardSelector.selectCardToDiscard(hand, deck);
     }
 
+    /**
+     * Select which card to discard from the hand, using what the player has seen this round
+     *
+     * @param hand The current hand (14 cards including drawn card)
+     * @param cardTracker The player's card tracker
+     * @return The card to discard
+     */
+    public Card selectCardToDiscard(Hand hand, Deck deck, CardTracker cardTracker) {
+        if (outsDiscardSelector != null) {
+            return outsDiscardSelector.selectCardToDiscard(hand, cardTracker);
+        }
+        if (linearEvaluator != null) {
+            return linearEvaluator.selectCardToDiscard(hand, cardTracker);
+        }
+        return discardSelector.selectCardToDiscard(hand, deck, cardTracker);
+    }
+
+    public SmartPlayerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return Precomputed strength of dealt hands, or null if no table is configured
+     */
+    public OpeningHandTable getOpeningHandTable() {
+        return openingHandTable;
+    }
+
+    /**
+     * Logs the precomputed strength of a dealt hand (nothing without a table)
+     *
+     * @param hand The dealt hand
+     * @param ginMode Whether the round uses Gin rules
+     * @return Expected win rate of the hand, or -1 without a table
+     */
+    public float rateOpeningHand(Hand hand, boolean ginMode) {
+        if (openingHandTable == null) return -1;
+        int handClass = OpeningHandTable.classOf(CardMasks.toMask(hand));
+        float winRate = openingHandTable.getWinRate(ginMode, handClass);
+        DebugLog.printf("[Opening Hand] %s | expected deadwood %.1f, win rate %.2f (%d samples)\n",
+                OpeningHandTable.describeClass(handClass), openingHandTable.getExpectedDeadwood(ginMode, handClass),
+                winRate, openingHandTable.getSamples(ginMode, handClass));
+        return winRate;
+    }
+
+    /**
+     * @return Per-criterion call counts and timings of this player's evaluator
+     */
+    public List<CardEvaluator.CriterionStatistics> getEvaluationStatistics() {
+        return evaluator.getStatistics();
+    }
+
     /**
      * Helper method to convert card to string for logging
      */
@@ -0,0 +1,162 @@
+package rummy.smartcomputer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Tunable parameters of the smart computer player.
+ * Each criterion gets a weight; a drawn card is kept when the weights of its satisfied criteria
+ * add up to the keep threshold, and the discard is the deadwood card with the lowest weighted score.
+ * The default configuration (all weights 1, threshold 1, knock at 7) is the original behaviour:
+ * keep on any criterion, discard the card satisfying the fewest criteria.
+ */
+public final class SmartPlayerConfig {
+    /** Criterion names, in CardEvaluator's strategy order */
+    public static final String[] CRITERIA = {
+            "ImmediateMeldStrategy", "MinimumRankGapStrategy", "MaximumSuitCountStrategy", "DeadwoodRankCountStrategy"
+    };
+    public static final SmartPlayerConfig DEFAULT = new SmartPlayerConfig(new double[]{1, 1, 1, 1}, 1.0, 7);
+
+    private static final String WEIGHT_KEY = "smart.weight.";
+    private static final String KEEP_THRESHOLD_KEY = "smart.keep_threshold";
+    private static final String KNOCK_THRESHOLD_KEY = "smart.knock_threshold";
+
+    private final double[] weights;
+    private final double keepThreshold;
+    private final int knockThreshold;
+
+    /**
+     * @param weights Weight of each criterion, in CRITERIA order
+     * @param keepThreshold Minimum weighted score for keeping a drawn card
+     * @param knockThreshold Deadwood at or below which a computer knocks (Gin mode)
+     */
+    public SmartPlayerConfig(double[] weights, double keepThreshold, int knockThreshold) {
+        if (weights.length != CRITERIA.length) {
+            throw new IllegalArgumentException("Expected " + CRITERIA.length + " weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+        this.keepThreshold = keepThreshold;
+        this.knockThreshold = knockThreshold;
+    }
+
+    public double getWeight(int criterion) {
+        return weights[criterion];
+    }
+
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    public double getKeepThreshold() {
+        return keepThreshold;
+    }
+
+    public int getKnockThreshold() {
+        return knockThreshold;
+    }
+
+    /**
+     * @return true if any single satisfied criterion is enough to keep a card,
+     * so keep decisions can stop at the first satisfied criterion
+     */
+    public boolean keepsOnAnyCriterion() {
+        for (double weight : weights) {
+            if (weight < keepThreshold) return false;
+        }
+        return keepThreshold > 0;
+    }
+
+    /**
+     * @param result Result of a COUNT or FULL evaluation
+     * @return Sum of the weights of the satisfied criteria
+     */
+    public double score(CardEvaluator.EvaluationResult result) {
+        double score = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (result.isSatisfied(i)) {
+                score += weights[i];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @param satisfiedCriteria Bit i set if criterion i is satisfied
+     * @return Sum of the weights of the satisfied criteria
+     */
+    public double score(int satisfiedCriteria) {
+        double score = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if ((satisfiedCriteria & (1 << i)) != 0) {
+                score += weights[i];
+            }
+        }
+        return score;
+    }
+
+    // ===== Persistence =====
+
+    /**
+     * Reads a configuration, taking missing entries from the defaults
+     */
+    public static SmartPlayerConfig fromProperties(Properties properties, SmartPlayerConfig defaults) {
+        double[] weights = new double[CRITERIA.length];
+        for (int i = 0; i < CRITERIA.length; i++) {
+            weights[i] = Double.parseDouble(properties.getProperty(WEIGHT_KEY + CRITERIA[i],
+                    String.valueOf(defaults.weights[i])));
+        }
+        double keepThreshold = Double.parseDouble(properties.getProperty(KEEP_THRESHOLD_KEY,
+                String.valueOf(defaults.keepThreshold)));
+        int knockThreshold = Integer.parseInt(properties.getProperty(KNOCK_THRESHOLD_KEY,
+                String.valueOf(defaults.knockThreshold)));
+        return new SmartPlayerConfig(weights, keepThreshold, knockThreshold);
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        for (int i = 0; i < CRITERIA.length; i++) {
+            properties.setProperty(WEIGHT_KEY + CRITERIA[i], String.valueOf(weights[i]));
+        }
+        properties.setProperty(KEEP_THRESHOLD_KEY, String.valueOf(keepThreshold));
+        properties.setProperty(KNOCK_THRESHOLD_KEY, String.valueOf(knockThreshold));
+        return properties;
+    }
+
+    /**
+     * Loads a configuration file written by store
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static SmartPlayerConfig load(Path path) {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return fromProperties(properties, DEFAULT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read smart player configuration " + path, e);
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void store(Path path, String comment) {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            toProperties().store(writer, comment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write smart player configuration " + path, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("weights=%s keepThreshold=%.3f knockThreshold=%d",
+                Arrays.toString(weights), keepThreshold, knockThreshold);
+    }
+}
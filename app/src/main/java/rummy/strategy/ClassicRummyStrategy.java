@@ -1,11 +1,16 @@
 package rummy.strategy;
 
 import ch.aplu.jcardgame.Hand;
+import rummy.DebugLog;
+import rummy.Declaration;
+import rummy.MeldAnalysisContext;
 import rummy.MeldDetector;
 import rummy.Rummy;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Strategy for Classic Rummy mode (13 cards, Rummy declaration only)
@@ -16,11 +21,9 @@ import java.util.Properties;
  */
 public class ClassicRummyStrategy implements GameModeStrategy {
 
-    private final int startingCards;
+    private static final Set<Declaration> DECLARATIONS = Collections.unmodifiableSet(EnumSet.of(Declaration.RUMMY));
 
-    // Track declaration state for this mode
-    private boolean isRummyDeclared = false;
-    private int rummyDeclarer = -1;
+    private final int startingCards;
 
     public ClassicRummyStrategy(Properties properties) {
         this.startingCards = Integer.parseInt(properties.getProperty("number_cards", "13"));
@@ -37,32 +40,35 @@ public class ClassicRummyStrategy implements GameModeStrategy {
     }
 
     @Override
-    public boolean validateDeclaration(Hand hand, int player, String declarationType) {
-        if (!"RUMMY".equals(declarationType)) {
+    public boolean validateDeclaration(Hand hand, int player, Declaration declaration, RoundState state,
+                                       MeldAnalysisContext context) {
+        if (declaration != Declaration.RUMMY) {
             return false; // Classic only supports RUMMY
         }
 
         // Use facade method for validation
-        boolean canDeclare = MeldDetector.canDeclareRummy(hand);
+        boolean canDeclare = MeldDetector.canDeclareRummy(context.getAnalysis(hand), hand.getNumberOfCards());
 
         if (canDeclare) {
-            isRummyDeclared = true;
-            rummyDeclarer = player;
+            state.declare(Declaration.RUMMY, player);
             return true;
         } else {
             // Invalid declaration - reset state
-            isRummyDeclared = false;
-            rummyDeclarer = -1;
+            state.withdraw(Declaration.RUMMY);
             return false;
         }
     }
 
     @Override
-    public int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted) {
+    public int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted, RoundState state,
+                                    MeldAnalysisContext context) {
+        boolean isRummyDeclared = state.isDeclared(Declaration.RUMMY);
+        int rummyDeclarer = state.getDeclaringPlayer();
+
         MeldDetector.MeldAnalysis[] analyses = new MeldDetector.MeldAnalysis[hands.length];
         for (int i = 0; i < hands.length; i++) {
-            analyses[i] = MeldDetector.findBestMelds(hands[i]);
-            System.out.println("P" + i + " " + MeldDetector.getMeldSummary(hands[i]));
+            analyses[i] = context.getAnalysis(hands[i]);
+            DebugLog.println("P" + i + " " + MeldDetector.getMeldSummary(analyses[i]));
         }
 
         int roundWinner;
@@ -74,7 +80,7 @@ public class ClassicRummyStrategy implements GameModeStrategy {
             scores[rummyDeclarer] += pointsEarned;
             roundWinner = rummyDeclarer;
 
-            System.out.println("Classic Rummy: P" + rummyDeclarer + " wins with Rummy! +" + pointsEarned);
+            DebugLog.println("Classic Rummy: P" + rummyDeclarer + " wins with Rummy! +" + pointsEarned);
 
         } else if (stockExhausted) {
             // Stockpile exhausted scenario
@@ -84,34 +90,33 @@ public class ClassicRummyStrategy implements GameModeStrategy {
             if (d0 < d1) {
                 scores[0] += d1;
                 roundWinner = 0;
-                System.out.println("Classic Rummy: Stock exhausted, P0 wins +" + d1);
+                DebugLog.println("Classic Rummy: Stock exhausted, P0 wins +" + d1);
             } else if (d1 < d0) {
                 scores[1] += d0;
                 roundWinner = 1;
-                System.out.println("Classic Rummy: Stock exhausted, P1 wins +" + d0);
+                DebugLog.println("Classic Rummy: Stock exhausted, P1 wins +" + d0);
             } else {
-                System.out.println("Classic Rummy: Stock exhausted, tie - no points");
+                DebugLog.println("Classic Rummy: Stock exhausted, tie - no points");
                 roundWinner = 0; // Default to P0 for next round start
             }
         } else {
-            System.out.println("Classic Rummy: Round ended with no valid conclusion");
+            DebugLog.println("Classic Rummy: Round ended with no valid conclusion");
             roundWinner = 0;
         }
 
         // Reset declaration state for next round
-        isRummyDeclared = false;
-        rummyDeclarer = -1;
+        state.clear();
 
         return roundWinner;
     }
 
     @Override
-    public boolean canDeclare(Hand hand, String declarationType) {
-        if (!"RUMMY".equals(declarationType)) {
+    public boolean canDeclare(Hand hand, Declaration declaration, MeldAnalysisContext context) {
+        if (declaration != Declaration.RUMMY) {
             return false;
         }
 
-        return MeldDetector.canDeclareRummy(hand);
+        return MeldDetector.canDeclareRummy(context.getAnalysis(hand), hand.getNumberOfCards());
     }
 
     @Override
@@ -122,27 +127,12 @@ public class ClassicRummyStrategy implements GameModeStrategy {
     }
 
     @Override
-    public boolean usesDeclarationType(String declarationType) {
-        return "RUMMY".equals(declarationType);
-    }
-
-    @Override
-    public boolean hasActiveDeclaration() {
-        return isRummyDeclared;
-    }
-
-    @Override
-    public int getDeclaringPlayer() {
-        return rummyDeclarer;
-    }
-
-    @Override
-    public String getDeclarationType() {
-        return isRummyDeclared ? "RUMMY" : null;
+    public boolean usesDeclaration(Declaration declaration) {
+        return declaration == Declaration.RUMMY;
     }
 
     @Override
-    public List<String> getSupportedDeclarations() {
-        return List.of("RUMMY");
+    public Set<Declaration> getSupportedDeclarations() {
+        return DECLARATIONS;
     }
 }
\ No newline at end of file
@@ -1,16 +1,20 @@
 package rummy.strategy;
 
 import ch.aplu.jcardgame.Hand;
+import rummy.Declaration;
+import rummy.MeldAnalysisContext;
 import rummy.MeldDetector;
 import rummy.Rummy;
 
-import java.util.List;
+import java.util.Set;
 
 /**
  * Strategy interface for game mode-specific rules and behaviors.
  * Responsibility: Owns knowledge about mode-specific rules (scoring, declarations, card counts)
  * Allows runtime selection of game mode behavior without changing controller
  * Each implementation provides mode-specific behavior through common interface
+ * Implementations are immutable and shared by all tables of the same mode; per-round declaration
+ * state lives in the RoundState passed in by the table.
  */
 public interface GameModeStrategy {
 
@@ -28,60 +32,72 @@ public interface GameModeStrategy {
      * Validates if a declaration (Rummy/Gin/Knock) is legal
      * @param hand The hand making the declaration
      * @param player The player index
-     * @param declarationType Type of declaration ("RUMMY", "GIN", "KNOCK")
+     * @param declaration Declaration made (Rummy/Gin/Knock)
+     * @param state Round state that records a valid declaration
      * @return true if valid, false if invalid
      */
-    boolean validateDeclaration(Hand hand, int player, String declarationType);
+    default boolean validateDeclaration(Hand hand, int player, Declaration declaration, RoundState state) {
+        return validateDeclaration(hand, player, declaration, state, new MeldAnalysisContext());
+    }
+
+    /**
+     * Validates if a declaration is legal, reusing the analyses of the given context
+     * @param context Meld analyses of the current turn
+     */
+    boolean validateDeclaration(Hand hand, int player, Declaration declaration, RoundState state,
+                                MeldAnalysisContext context);
 
     /**
      * Calculates scores at end of round based on mode-specific rules
      * @param hands All player hands
      * @param scores Current scores (will be mutated)
      * @param stockExhausted Whether stockpile ran out
+     * @param state Round state holding the declaration; cleared for the next round
      * @return Round winner index
      */
-    int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted);;
-
-    /**
-     * Checks if a player can make a declaration with their current hand
-     * @param hand The player's hand
-     * @param declarationType Type of declaration to check
-     * @return true if player can declare
-     */
-    boolean canDeclare(Hand hand, String declarationType);
+    default int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted, RoundState state) {
+        return calculateRoundScores(hands, scores, stockExhausted, state, new MeldAnalysisContext());
+    }
 
     /**
-     * Sets up mode-specific UI buttons
-     * @param game Reference to main game for button management
+     * Calculates scores at end of round, reusing the analyses of the given context
+     * @param context Meld analyses of the final hands
      */
-    void setupButtons(Rummy game);
+    int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted, RoundState state,
+                             MeldAnalysisContext context);
 
     /**
-     * Returns whether this mode uses a specific declaration type
+     * Checks if a player can make a declaration with their current hand
+     * @param hand The player's hand
+     * @param declaration Declaration to check
+     * @return true if player can declare
      */
-    boolean usesDeclarationType(String declarationType);
+    default boolean canDeclare(Hand hand, Declaration declaration) {
+        return canDeclare(hand, declaration, new MeldAnalysisContext());
+    }
 
     /**
-     * Checks if a valid declaration has been made in this round
-     * @return true if a declaration has been made that should end the round
+     * Checks if a player can make a declaration, reusing the analyses of the given context
+     * @param context Meld analyses of the current turn
      */
-    boolean hasActiveDeclaration();
+    boolean canDeclare(Hand hand, Declaration declaration, MeldAnalysisContext context);
 
     /**
-     * Gets the player who made the active declaration
-     * @return player index, or -1 if no active declaration
+     * Sets up mode-specific UI buttons
+     * @param game Reference to main game for button management
      */
-    int getDeclaringPlayer();
+    void setupButtons(Rummy game);
 
     /**
-     * Gets the type of active declaration
-     * @return declaration type ("RUMMY", "GIN", "KNOCK") or null if none
+     * Returns whether this mode uses a specific declaration
      */
-    String getDeclarationType();
+    default boolean usesDeclaration(Declaration declaration) {
+        return getSupportedDeclarations().contains(declaration);
+    }
 
     /**
-     * Gets list of declaration types supported by this mode, in priority order
-     * @return list of declaration types (e.g., ["GIN", "KNOCK"] or ["RUMMY"])
+     * Gets the declarations supported by this mode; iteration follows the Declaration priority order
+     * @return unmodifiable set of declarations (e.g., {GIN, KNOCK} or {RUMMY})
      */
-    List<String> getSupportedDeclarations();
-}
\ No newline at end of file
+    Set<Declaration> getSupportedDeclarations();
+}
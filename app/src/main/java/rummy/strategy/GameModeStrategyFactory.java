@@ -1,17 +1,24 @@
 package rummy.strategy;
 
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton Factory for creating game mode strategies.
  * Centralizes strategy creation logic based on configuration.
  * - Ensures single factory instance
  * - Creates appropriate strategy based on mode string
+ * - Shares one immutable strategy per mode (and card count) between all tables
+ * Thread-safe: tables on different threads may ask for strategies concurrently.
  */
 public class GameModeStrategyFactory {
 
-    // Singleton instance
-    private static GameModeStrategyFactory instance;
+    // Singleton instance, created when the class is initialized
+    private static final GameModeStrategyFactory INSTANCE = new GameModeStrategyFactory();
+
+    // Shared strategies, keyed by mode and the configuration they depend on
+    private final Map<String, GameModeStrategy> strategies = new ConcurrentHashMap<>();
 
     /**
      * Private constructor to prevent instantiation
@@ -25,14 +32,12 @@ public class GameModeStrategyFactory {
      * @return the factory instance
      */
     public static GameModeStrategyFactory getInstance() {
-        if (instance == null) {
-            instance = new GameModeStrategyFactory();
-        }
-        return instance;
+        return INSTANCE;
     }
 
     /**
-     * Creates the appropriate game mode strategy based on configuration
+     * Returns the game mode strategy for the configuration.
+     * Strategies are immutable, so tables with the same mode receive the same instance.
      *
      * @param mode The game mode ("classic", "gin", etc.)
      * @param properties The game properties configuration
@@ -47,11 +52,15 @@ public class GameModeStrategyFactory {
         String normalizedMode = mode.toLowerCase().trim();
 
         return switch (normalizedMode) {
-            case "classic" -> new ClassicRummyStrategy(properties);
-            case "gin" -> new GinRummyStrategy(properties);
+            case "classic" -> strategies.computeIfAbsent(
+                    "classic/" + properties.getProperty("number_cards", "13"),
+                    key -> new ClassicRummyStrategy(properties));
+            case "gin" -> strategies.computeIfAbsent(
+                    "gin/" + Boolean.parseBoolean(properties.getProperty("layoffs", "false")),
+                    key -> new GinRummyStrategy(properties));
             default -> throw new IllegalArgumentException(
                     "Unknown game mode: '" + mode + "'. Supported modes: classic, gin"
             );
         };
     }
-}
\ No newline at end of file
+}
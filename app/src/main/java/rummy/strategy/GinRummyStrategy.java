@@ -1,12 +1,19 @@
 package rummy.strategy;
 
 import ch.aplu.jcardgame.Hand;
+import rummy.DebugLog;
+import rummy.Declaration;
+import rummy.MeldAnalysisContext;
 import rummy.MeldDetector;
 import rummy.Rummy;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.LayoffCalculator;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Strategy for Gin Rummy mode (10 cards, Gin/Knock declarations)
@@ -15,18 +22,19 @@ import java.util.Properties;
  * - Gin declaration (all cards in melds)
  * - Knock declaration (anytime, no threshold per spec)
  * - Scoring based on deadwood differences
+ * - Optional layoffs: after a knock the opponent lays deadwood off onto the knocker's melds
+ *   (property layoffs=true)
  */
 public class GinRummyStrategy implements GameModeStrategy {
 
-    private final Properties properties;
-    // Track declaration state for this mode
-    private boolean isGinDeclared = false;
-    private int ginDeclarer = -1;
-    private boolean isKnockDeclared = false;
-    private int knocker = -1;
+    // Gin first (best), then Knock
+    private static final Set<Declaration> DECLARATIONS =
+            Collections.unmodifiableSet(EnumSet.of(Declaration.GIN, Declaration.KNOCK));
+
+    private final boolean layoffs;
 
     public GinRummyStrategy(Properties properties) {
-        this.properties = properties;
+        this.layoffs = Boolean.parseBoolean(properties.getProperty("layoffs", "false"));
     }
 
     @Override
@@ -40,55 +48,60 @@ public class GinRummyStrategy implements GameModeStrategy {
     }
 
     @Override
-    public boolean validateDeclaration(Hand hand, int player, String declarationType) {
-        return switch (declarationType) {
-            case "GIN" -> validateGin(hand, player);
-            case "KNOCK" -> validateKnock(hand, player);
-            default -> false;
+    public boolean validateDeclaration(Hand hand, int player, Declaration declaration, RoundState state,
+                                       MeldAnalysisContext context) {
+        return switch (declaration) {
+            case GIN -> validateGin(hand, player, state, context);
+            case KNOCK -> validateKnock(hand, player, state, context);
+            case RUMMY -> false;
         };
     }
 
-    private boolean validateGin(Hand hand, int player) {
+    private boolean validateGin(Hand hand, int player, RoundState state, MeldAnalysisContext context) {
         // Use facade method for Gin validation
-        boolean canDeclare = MeldDetector.canDeclareGin(hand);
+        MeldDetector.MeldAnalysis analysis = context.getAnalysis(hand);
+        boolean canDeclare = MeldDetector.canDeclareGin(analysis, hand.getNumberOfCards());
 
         if (canDeclare) {
-            isGinDeclared = true;
-            ginDeclarer = player;
-            System.out.println("VALID GIN by P" + player);
+            state.declare(Declaration.GIN, player);
+            DebugLog.println("VALID GIN by P" + player);
             return true;
         } else {
-            int deadwood = MeldDetector.getDeadwoodValue(hand);
-            System.out.println("INVALID GIN by P" + player + " - deadwood: " + deadwood);
-            isGinDeclared = false;
-            ginDeclarer = -1;
+            int deadwood = analysis.getDeadwoodValue();
+            DebugLog.println("INVALID GIN by P" + player + " - deadwood: " + deadwood);
+            state.withdraw(Declaration.GIN);
             return false;
         }
     }
 
-    private boolean validateKnock(Hand hand, int player) {
-        int deadwood = MeldDetector.getDeadwoodValue(hand);
+    private boolean validateKnock(Hand hand, int player, RoundState state, MeldAnalysisContext context) {
+        int deadwood = context.getDeadwoodValue(hand);
 
-        isKnockDeclared = true;
-        knocker = player;
-        System.out.println("VALID KNOCK by P" + player + " - deadwood: " + deadwood);
+        state.declare(Declaration.KNOCK, player);
+        DebugLog.println("VALID KNOCK by P" + player + " - deadwood: " + deadwood);
         return true;
     }
 
     @Override
-    public int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted) {
-        System.out.println("\n=== GIN RUMMY SCORING ===");
-        System.out.println("Gin declared: " + isGinDeclared + " by P" + ginDeclarer);
-        System.out.println("Knock declared: " + isKnockDeclared + " by P" + knocker);
+    public int calculateRoundScores(Hand[] hands, int[] scores, boolean stockExhausted, RoundState state,
+                                    MeldAnalysisContext context) {
+        boolean isGinDeclared = state.isDeclared(Declaration.GIN);
+        int ginDeclarer = isGinDeclared ? state.getDeclaringPlayer() : -1;
+        boolean isKnockDeclared = state.isDeclared(Declaration.KNOCK);
+        int knocker = isKnockDeclared ? state.getDeclaringPlayer() : -1;
+
+        DebugLog.println("\n=== GIN RUMMY SCORING ===");
+        DebugLog.println("Gin declared: " + isGinDeclared + " by P" + ginDeclarer);
+        DebugLog.println("Knock declared: " + isKnockDeclared + " by P" + knocker);
 
         MeldDetector.MeldAnalysis[] analyses = new MeldDetector.MeldAnalysis[hands.length];
         for (int i = 0; i < hands.length; i++) {
-            analyses[i] = MeldDetector.findBestMelds(hands[i]);
-            System.out.println("P" + i + " " + MeldDetector.getMeldSummary(hands[i]));
+            analyses[i] = context.getAnalysis(hands[i]);
+            DebugLog.println("P" + i + " " + MeldDetector.getMeldSummary(analyses[i]));
         }
 
-        System.out.println("P0 deadwood: " + analyses[0].getDeadwoodValue());
-        System.out.println("P1 deadwood: " + analyses[1].getDeadwoodValue());
+        DebugLog.println("P0 deadwood: " + analyses[0].getDeadwoodValue());
+        DebugLog.println("P1 deadwood: " + analyses[1].getDeadwoodValue());
 
         int roundWinner;
 
@@ -99,7 +112,7 @@ public class GinRummyStrategy implements GameModeStrategy {
             scores[ginDeclarer] += opponentDeadwood;
             roundWinner = ginDeclarer;
 
-            System.out.println("Gin Rummy: P" + ginDeclarer + " wins with GIN! +" + opponentDeadwood + " (opponent deadwood: " + opponentDeadwood + ")");
+            DebugLog.println("Gin Rummy: P" + ginDeclarer + " wins with GIN! +" + opponentDeadwood + " (opponent deadwood: " + opponentDeadwood + ")");
 
         } else if (isKnockDeclared && knocker != -1) {
             // Knock declared
@@ -107,26 +120,37 @@ public class GinRummyStrategy implements GameModeStrategy {
             int knockerDeadwood = analyses[knocker].getDeadwoodValue();
             int opponentDeadwood = analyses[opponent].getDeadwoodValue();
 
-            System.out.println("Knocker (P" + knocker + ") deadwood: " + knockerDeadwood);
-            System.out.println("Opponent (P" + opponent + ") deadwood: " + opponentDeadwood);
+            if (layoffs) {
+                long opponentCards = CardMasks.toMask(hands[opponent]);
+                // Arranged like the simulations do, so rollouts score the same layoffs
+                long knockerMelded = BitMeldAnalyzer.meldedCards(CardMasks.toMask(hands[knocker]));
+                long layoff = LayoffCalculator.bestLayoff(knockerMelded, opponentCards);
+                if (layoff != 0) {
+                    opponentDeadwood = BitMeldAnalyzer.deadwoodValue(opponentCards & ~layoff);
+                    DebugLog.println("P" + opponent + " lays off: " + CardMasks.toString(layoff));
+                }
+            }
+
+            DebugLog.println("Knocker (P" + knocker + ") deadwood: " + knockerDeadwood);
+            DebugLog.println("Opponent (P" + opponent + ") deadwood: " + opponentDeadwood);
 
             if (knockerDeadwood < opponentDeadwood) {
                 // Successful knock - knocker gets the difference (no bonus)
                 int diff = opponentDeadwood - knockerDeadwood;
                 scores[knocker] += diff;
                 roundWinner = knocker;
-                System.out.println("Gin Rummy: Knock success by P" + knocker + " +" + diff);
+                DebugLog.println("Gin Rummy: Knock success by P" + knocker + " +" + diff);
 
             } else if (knockerDeadwood > opponentDeadwood) {
                 // Undercut! - opponent gets difference + 25 bonus
                 int diff = knockerDeadwood - opponentDeadwood;
                 scores[opponent] += diff;
                 roundWinner = opponent;
-                System.out.println("Gin Rummy: Undercut by P" + opponent + " +" + diff + " (diff: " + diff + ")");
+                DebugLog.println("Gin Rummy: Undercut by P" + opponent + " +" + diff + " (diff: " + diff + ")");
 
             } else {
                 // Tie - no points awarded
-                System.out.println("Gin Rummy: Knock tie - no points");
+                DebugLog.println("Gin Rummy: Knock tie - no points");
                 roundWinner = knocker; // Knocker still goes first next round
             }
 
@@ -138,41 +162,38 @@ public class GinRummyStrategy implements GameModeStrategy {
             if (d0 < d1) {
                 scores[0] += d1;
                 roundWinner = 0;
-                System.out.println("Gin Rummy: Stock exhausted, P0 wins +" + d1);
+                DebugLog.println("Gin Rummy: Stock exhausted, P0 wins +" + d1);
             } else if (d1 < d0) {
                 scores[1] += d0;
                 roundWinner = 1;
-                System.out.println("Gin Rummy: Stock exhausted, P1 wins +" + d0);
+                DebugLog.println("Gin Rummy: Stock exhausted, P1 wins +" + d0);
             } else {
-                System.out.println("Gin Rummy: Stock exhausted, tie - no points");
+                DebugLog.println("Gin Rummy: Stock exhausted, tie - no points");
                 roundWinner = 0;
             }
         } else {
-            System.out.println("Gin Rummy: Round ended with no valid conclusion");
+            DebugLog.println("Gin Rummy: Round ended with no valid conclusion");
             roundWinner = 0;
         }
 
-        System.out.println("Scores after round: P0=" + scores[0] + ", P1=" + scores[1]);
-        System.out.println("Round winner: P" + roundWinner);
-        System.out.println("=========================\n");
+        DebugLog.println("Scores after round: P0=" + scores[0] + ", P1=" + scores[1]);
+        DebugLog.println("Round winner: P" + roundWinner);
+        DebugLog.println("=========================\n");
 
         // Reset declaration state for next round
-        isGinDeclared = false;
-        ginDeclarer = -1;
-        isKnockDeclared = false;
-        knocker = -1;
+        state.clear();
 
         return roundWinner;
     }
 
     @Override
-    public boolean canDeclare(Hand hand, String declarationType) {
-        return switch (declarationType) {
-            case "GIN" -> MeldDetector.canDeclareGin(hand);
-            case "KNOCK" ->
+    public boolean canDeclare(Hand hand, Declaration declaration, MeldAnalysisContext context) {
+        return switch (declaration) {
+            case GIN -> MeldDetector.canDeclareGin(context.getAnalysis(hand), hand.getNumberOfCards());
+            case KNOCK ->
                 // Per spec: Any player can knock at any time
                     true;
-            default -> false;
+            case RUMMY -> false;
         };
     }
 
@@ -184,32 +205,12 @@ public class GinRummyStrategy implements GameModeStrategy {
     }
 
     @Override
-    public boolean usesDeclarationType(String declarationType) {
-        return "GIN".equals(declarationType) || "KNOCK".equals(declarationType);
-    }
-
-    @Override
-    public boolean hasActiveDeclaration() {
-        return isGinDeclared || isKnockDeclared;
-    }
-
-    @Override
-    public int getDeclaringPlayer() {
-        if (isGinDeclared) return ginDeclarer;
-        if (isKnockDeclared) return knocker;
-        return -1;
-    }
-
-    @Override
-    public String getDeclarationType() {
-        if (isGinDeclared) return "GIN";
-        if (isKnockDeclared) return "KNOCK";
-        return null;
+    public boolean usesDeclaration(Declaration declaration) {
+        return declaration == Declaration.GIN || declaration == Declaration.KNOCK;
     }
 
     @Override
-    public List<String> getSupportedDeclarations() {
-        // Gin first (best), then Knock
-        return Arrays.asList("GIN", "KNOCK");
+    public Set<Declaration> getSupportedDeclarations() {
+        return DECLARATIONS;
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package rummy.strategy;
+
+import rummy.Declaration;
+
+/**
+ * Declaration state of one round at one table.
+ * Strategies are immutable and shared between tables, so the declaration a strategy validates
+ * is recorded here instead; the table owns one RoundState and scoring clears it for the next round.
+ * Not thread-safe; a table only touches its own state from its game thread.
+ */
+public class RoundState {
+    private Declaration declaration;
+    private int declarer = -1;
+
+    /**
+     * Records a valid declaration
+     */
+    public void declare(Declaration declaration, int player) {
+        this.declaration = declaration;
+        this.declarer = player;
+    }
+
+    /**
+     * Drops the declaration if it is of the given type (after an invalid redeclaration)
+     */
+    public void withdraw(Declaration declaration) {
+        if (this.declaration == declaration) {
+            clear();
+        }
+    }
+
+    /**
+     * Forgets the declaration, ready for the next round
+     */
+    public void clear() {
+        declaration = null;
+        declarer = -1;
+    }
+
+    /**
+     * @return true if a declaration has been made that should end the round
+     */
+    public boolean hasActiveDeclaration() {
+        return declaration != null;
+    }
+
+    /**
+     * @return true if the active declaration is of the given type
+     */
+    public boolean isDeclared(Declaration declaration) {
+        return this.declaration == declaration;
+    }
+
+    /**
+     * @return player index, or -1 if no active declaration
+     */
+    public int getDeclaringPlayer() {
+        return declarer;
+    }
+
+    /**
+     * @return active declaration, or null if none
+     */
+    public Declaration getDeclaration() {
+        return declaration;
+    }
+}
@@ -0,0 +1,151 @@
+package rummy.tuning;
+
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.PlayoutPolicy;
+import rummy.simulation.SimulatedRound;
+import rummy.smartcomputer.SmartPlayerConfig;
+
+/**
+ * The smart computer player's decisions on card masks, for headless self-play.
+ * Follows Rummy.processSmartComputerTurn: keep the discard top if the criteria say so,
+ * otherwise draw from the stockpile and either keep the drawn card (and discard through the
+ * DiscardSelector rules) or throw it straight back.
+ * The four criteria mirror the CardEvaluationStrategy implementations, weighted by a SmartPlayerConfig.
+ */
+public class MaskSmartPolicy implements PlayoutPolicy {
+    private static final long SUIT_MASK = (1L << CardMasks.RANKS) - 1;
+    private static final long RANK_MASK;
+
+    static {
+        long rankMask = 0;
+        for (int suit = 0; suit < CardMasks.SUITS; suit++) {
+            rankMask |= 1L << (suit * CardMasks.RANKS);
+        }
+        RANK_MASK = rankMask;
+    }
+
+    private final SmartPlayerConfig config;
+
+    public MaskSmartPolicy(SmartPlayerConfig config) {
+        this.config = config;
+    }
+
+    public SmartPlayerConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public boolean drawFromDiscard(SimulatedRound round) {
+        return shouldKeep(round.getDiscardTop(), round.getHand(round.getCurrentPlayer()));
+    }
+
+    @Override
+    public int chooseDiscard(SimulatedRound round) {
+        long hand = round.getHand(round.getCurrentPlayer());
+        int drawn = round.getLastDrawnCard();
+        if (!round.isLastDrawFromDiscard() && !shouldKeep(drawn, hand & ~CardMasks.bit(drawn))) {
+            return drawn;
+        }
+        return selectDiscard(hand);
+    }
+
+    /**
+     * @param card Candidate card
+     * @param hand Hand without the card
+     */
+    public boolean shouldKeep(int card, long hand) {
+        return config.score(satisfiedCriteria(card, hand)) >= config.getKeepThreshold();
+    }
+
+    /**
+     * DiscardSelector rules: lowest weighted score among the deadwood, then least frequent
+     * deadwood suit, then highest value
+     *
+     * @param hand Full hand (including the drawn card)
+     */
+    public int selectDiscard(long hand) {
+        long deadwood = BitMeldAnalyzer.deadwood(hand);
+        if (deadwood == 0) {
+            return Long.numberOfTrailingZeros(hand);
+        }
+
+        int best = -1;
+        double bestScore = Double.MAX_VALUE;
+        int bestSuitCount = Integer.MAX_VALUE;
+        int bestValue = -1;
+        for (long cards = deadwood; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            double score = config.score(satisfiedCriteria(card, hand & ~CardMasks.bit(card)));
+            int suitCount = Long.bitCount(deadwood & suitMask(card));
+            int value = CardMasks.value(card);
+            if (score < bestScore
+                    || (score == bestScore && (suitCount < bestSuitCount
+                    || (suitCount == bestSuitCount && value > bestValue)))) {
+                best = card;
+                bestScore = score;
+                bestSuitCount = suitCount;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param card Candidate card
+     * @param hand Hand without the card
+     * @return Bit i set if criterion i (SmartPlayerConfig.CRITERIA order) is satisfied
+     */
+    static int satisfiedCriteria(int card, long hand) {
+        long cardBit = CardMasks.bit(card);
+        long withCard = hand | cardBit;
+        long suitCards = hand & suitMask(card);
+        int satisfied = 0;
+
+        // Immediate meld: more melded cards with the card than without
+        if (Long.bitCount(BitMeldAnalyzer.meldedCards(withCard)) > Long.bitCount(BitMeldAnalyzer.meldedCards(hand))) {
+            satisfied |= 1;
+        }
+
+        // Minimum rank gap: the card narrows the gaps of its suit (or is the only card of it)
+        if (suitCards == 0 || minimumRankGap(suitCards | cardBit) < minimumRankGap(suitCards)) {
+            satisfied |= 1 << 1;
+        }
+
+        // Maximum suit count: the card's suit becomes the largest
+        int maxSuitCount = 0;
+        for (int suit = 0; suit < CardMasks.SUITS; suit++) {
+            maxSuitCount = Math.max(maxSuitCount, Long.bitCount(hand & (SUIT_MASK << (suit * CardMasks.RANKS))));
+        }
+        if (Long.bitCount(suitCards) + 1 > maxSuitCount) {
+            satisfied |= 1 << 2;
+        }
+
+        // Deadwood rank count: more than one deadwood card of the card's rank
+        long sameRank = RANK_MASK << (CardMasks.rankValueOf(card) - 1);
+        if (Long.bitCount(BitMeldAnalyzer.deadwood(withCard) & sameRank) > 1) {
+            satisfied |= 1 << 3;
+        }
+        return satisfied;
+    }
+
+    private static long suitMask(int card) {
+        return SUIT_MASK << (CardMasks.suitOf(card) * CardMasks.RANKS);
+    }
+
+    /**
+     * Minimum gap between consecutive ranks of a single-suit mask (Integer.MAX_VALUE if fewer than 2)
+     */
+    private static int minimumRankGap(long suitCards) {
+        int minGap = Integer.MAX_VALUE;
+        int previous = -1;
+        for (; suitCards != 0; suitCards &= suitCards - 1) {
+            int card = Long.numberOfTrailingZeros(suitCards);
+            if (previous != -1) {
+                minGap = Math.min(minGap, card - previous - 1);
+            }
+            previous = card;
+        }
+        return minGap;
+    }
+}
@@ -0,0 +1,173 @@
+package rummy.tuning;
+
+import rummy.PropertiesLoader;
+import rummy.simulation.BitMeldAnalyzer;
+import rummy.simulation.CardMasks;
+import rummy.simulation.GreedyPlayoutPolicy;
+import rummy.simulation.OpeningHandTable;
+import rummy.simulation.PlayoutPolicy;
+import rummy.simulation.SimulatedRound;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline generator of the OpeningHandTable.
+ * Plays random deals of both modes headlessly (greedy policy for both players), spread over all
+ * cores, and records for each dealt hand's class the deadwood that hand ended the round with and
+ * whether its player won.
+ *
+ * Usage: OpeningHandTableGenerator [properties resource]
+ *   opening.deals    Deals per mode (default 1000000)
+ *   opening.threads  Worker threads (default: available processors)
+ *   opening.seed     Random seed (default 30008)
+ *   opening.output   Output file (default opening-hands.table)
+ */
+public class OpeningHandTableGenerator {
+    // Deals per worker task
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final int deals;
+    private final int threads;
+    private final long seed;
+    private final Path output;
+
+    public OpeningHandTableGenerator(Properties properties) {
+        this.deals = Integer.parseInt(properties.getProperty("opening.deals", "1000000"));
+        this.threads = Integer.parseInt(properties.getProperty("opening.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.seed = Long.parseLong(properties.getProperty("opening.seed", "30008"));
+        this.output = Path.of(properties.getProperty("opening.output", "opening-hands.table"));
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        Properties properties = args.length > 0 ? PropertiesLoader.loadPropertiesFile(args[0]) : new Properties();
+        new OpeningHandTableGenerator(properties).run();
+    }
+
+    /**
+     * Simulates both modes and writes the table
+     */
+    public void run() throws InterruptedException, ExecutionException {
+        System.out.printf("Generating opening hand table: %d deals per mode on %d threads\n", deals, threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Statistics gin = simulate(executor, true);
+            Statistics classic = simulate(executor, false);
+            write(gin, classic);
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println("Table written to " + output.toAbsolutePath());
+    }
+
+    private Statistics simulate(ExecutorService executor, boolean ginMode)
+            throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        List<Future<Statistics>> chunks = new ArrayList<>();
+        for (int from = 0; from < deals; from += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, deals - from);
+            long chunkSeed = seed * 31 + from + (ginMode ? 0 : 1L << 40);
+            chunks.add(executor.submit(() -> playDeals(ginMode, count, new Random(chunkSeed))));
+        }
+
+        Statistics total = new Statistics();
+        for (Future<Statistics> chunk : chunks) {
+            total.add(chunk.get());
+        }
+        int seenClasses = 0;
+        for (long samples : total.samples) {
+            if (samples > 0) seenClasses++;
+        }
+        System.out.printf("%s: %d classes seen in %.1f s\n", ginMode ? "Gin" : "Classic", seenClasses,
+                (System.nanoTime() - start) / 1e9);
+        return total;
+    }
+
+    private static Statistics playDeals(boolean ginMode, int count, Random random) {
+        int handSize = ginMode ? 10 : 13;
+        Statistics statistics = new Statistics();
+        PlayoutPolicy policy = new GreedyPlayoutPolicy();
+        SimulatedRound round = new SimulatedRound(ginMode, 7);
+        int[] deck = new int[CardMasks.DECK_SIZE];
+        int[] noDiscards = new int[0];
+        long[] dealt = new long[2];
+
+        for (int d = 0; d < count; d++) {
+            for (int i = 0; i < deck.length; i++) {
+                deck[i] = i;
+            }
+            for (int i = deck.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+            }
+            dealt[0] = 0;
+            dealt[1] = 0;
+            for (int i = 0; i < handSize; i++) {
+                dealt[0] |= CardMasks.bit(deck[CardMasks.DECK_SIZE - 1 - i]);
+                dealt[1] |= CardMasks.bit(deck[CardMasks.DECK_SIZE - 1 - handSize - i]);
+            }
+            round.reset(dealt[0], dealt[1], deck, CardMasks.DECK_SIZE - 2 * handSize, noDiscards, 0,
+                    random.nextInt(2), false);
+            round.playOut(policy);
+
+            for (int player = 0; player < 2; player++) {
+                int handClass = OpeningHandTable.classOf(dealt[player]);
+                int points = round.getPoints(player);
+                int opponentPoints = round.getPoints(1 - player);
+                statistics.deadwood[handClass] += BitMeldAnalyzer.deadwoodValue(round.getHand(player));
+                statistics.wins[handClass] += points > opponentPoints ? 1 : points == opponentPoints ? 0.5 : 0;
+                statistics.samples[handClass]++;
+            }
+        }
+        return statistics;
+    }
+
+    private void write(Statistics gin, Statistics classic) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(OpeningHandTable.MAGIC);
+            out.writeInt(OpeningHandTable.CLASS_COUNT);
+            for (Statistics statistics : new Statistics[]{gin, classic}) {
+                for (int c = 0; c < OpeningHandTable.CLASS_COUNT; c++) {
+                    long samples = statistics.samples[c];
+                    out.writeFloat(samples == 0 ? 0 : (float) (statistics.deadwood[c] / samples));
+                    out.writeFloat(samples == 0 ? 0 : (float) (statistics.wins[c] / samples));
+                    out.writeInt((int) Math.min(Integer.MAX_VALUE, samples));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write opening hand table " + output, e);
+        }
+    }
+
+    /**
+     * Per-class sums of one mode
+     */
+    private static final class Statistics {
+        final double[] deadwood = new double[OpeningHandTable.CLASS_COUNT];
+        final double[] wins = new double[OpeningHandTable.CLASS_COUNT];
+        final long[] samples = new long[OpeningHandTable.CLASS_COUNT];
+
+        void add(Statistics other) {
+            for (int c = 0; c < OpeningHandTable.CLASS_COUNT; c++) {
+                deadwood[c] += other.deadwood[c];
+                wins[c] += other.wins[c];
+                samples[c] += other.samples[c];
+            }
+        }
+    }
+}
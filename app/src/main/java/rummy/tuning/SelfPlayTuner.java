@@ -0,0 +1,270 @@
+package rummy.tuning;
+
+import rummy.PropertiesLoader;
+import rummy.simulation.CardMasks;
+import rummy.simulation.SimulatedRound;
+import rummy.smartcomputer.SmartPlayerConfig;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Cross-entropy search over smart player configurations by headless self-play.
+ * Every generation samples candidate parameter vectors (criterion weights, keep threshold and,
+ * in Gin mode, knock threshold) from a Gaussian, plays each one against the default smart player
+ * and refits the Gaussian to the best candidates.
+ *
+ * All candidates of a generation play the same deals (common random numbers), each deal once
+ * from each seat, so differences between candidates come from their decisions rather than the cards.
+ * Games are spread over all cores. The best configuration is written as a properties file that
+ * SmartComputerPlayer loads through the computer_smart.config property.
+ *
+ * Usage: SelfPlayTuner [tuner properties resource]
+ *   tuner.mode            gin or classic (default gin)
+ *   tuner.generations     Number of generations (default 10)
+ *   tuner.population      Candidates per generation (default 24)
+ *   tuner.elite_fraction  Fraction of candidates the distribution is refitted to (default 0.25)
+ *   tuner.games           Deals per candidate and generation, each played from both seats (default 2000)
+ *   tuner.threads         Worker threads (default: available processors)
+ *   tuner.seed            Random seed (default 30008)
+ *   tuner.output          Output file (default smart-player.properties)
+ */
+public class SelfPlayTuner {
+    // Parameter vector layout: criterion weights, then keep threshold, then knock threshold
+    private static final int KEEP_THRESHOLD = SmartPlayerConfig.CRITERIA.length;
+    private static final int KNOCK_THRESHOLD = KEEP_THRESHOLD + 1;
+    private static final int DIMENSIONS = KNOCK_THRESHOLD + 1;
+
+    private static final double[] MINIMUM = {0, 0, 0, 0, 0.1, 0};
+    private static final double[] MAXIMUM = {4, 4, 4, 4, 4, 10};
+    private static final double[] INITIAL_DEVIATION = {0.75, 0.75, 0.75, 0.75, 0.75, 2};
+    private static final double MINIMUM_DEVIATION = 0.05;
+    // Weight of the new elite statistics when refitting the distribution
+    private static final double SMOOTHING = 0.7;
+    // Games per worker task
+    private static final int CHUNK_SIZE = 250;
+
+    private final boolean ginMode;
+    private final int handSize;
+    private final int generations;
+    private final int population;
+    private final int eliteCount;
+    private final int games;
+    private final int threads;
+    private final Random random;
+    private final Path output;
+    private final ExecutorService executor;
+
+    public SelfPlayTuner(Properties properties) {
+        this.ginMode = !"classic".equalsIgnoreCase(properties.getProperty("tuner.mode", "gin"));
+        this.handSize = ginMode ? 10 : 13;
+        this.generations = Integer.parseInt(properties.getProperty("tuner.generations", "10"));
+        this.population = Integer.parseInt(properties.getProperty("tuner.population", "24"));
+        double eliteFraction = Double.parseDouble(properties.getProperty("tuner.elite_fraction", "0.25"));
+        this.eliteCount = Math.max(2, (int) Math.round(population * eliteFraction));
+        this.games = Integer.parseInt(properties.getProperty("tuner.games", "2000"));
+        this.threads = Integer.parseInt(properties.getProperty("tuner.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.random = new Random(Long.parseLong(properties.getProperty("tuner.seed", "30008")));
+        this.output = Path.of(properties.getProperty("tuner.output", "smart-player.properties"));
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        Properties properties = args.length > 0 ? PropertiesLoader.loadPropertiesFile(args[0]) : new Properties();
+        SelfPlayTuner tuner = new SelfPlayTuner(properties);
+        try {
+            tuner.run();
+        } finally {
+            tuner.executor.shutdown();
+        }
+    }
+
+    /**
+     * Runs the search and writes the best configuration found
+     */
+    public SmartPlayerConfig run() throws InterruptedException, ExecutionException {
+        System.out.printf("Tuning %s mode: %d generations x %d candidates x %d deals on %d threads\n",
+                ginMode ? "gin" : "classic", generations, population, games, threads);
+
+        double[] mean = toVector(SmartPlayerConfig.DEFAULT);
+        double[] deviation = INITIAL_DEVIATION.clone();
+        if (!ginMode) {
+            deviation[KNOCK_THRESHOLD] = 0;
+        }
+
+        for (int generation = 0; generation < generations; generation++) {
+            long[] dealSeeds = random.longs(games).toArray();
+
+            List<double[]> candidates = new ArrayList<>();
+            candidates.add(mean.clone());
+            while (candidates.size() < population) {
+                candidates.add(sample(mean, deviation));
+            }
+            double[] fitness = evaluate(candidates, dealSeeds);
+
+            Integer[] ranking = new Integer[candidates.size()];
+            Arrays.setAll(ranking, i -> i);
+            Arrays.sort(ranking, Comparator.comparingDouble(i -> -fitness[i]));
+
+            refit(mean, deviation, candidates, ranking);
+            System.out.printf("Generation %d: best %+.3f points/round (%s), mean candidate %+.3f\n",
+                    generation, fitness[ranking[0]], toConfig(candidates.get(ranking[0])), fitness[0]);
+        }
+
+        // Final check on fresh deals: the tuned mean must beat the default to be written
+        SmartPlayerConfig best = toConfig(mean);
+        double[] validation = evaluate(List.of(mean), random.longs(games * 2L).toArray());
+        System.out.printf("Tuned configuration: %s (%+.3f points/round against the default)\n", best, validation[0]);
+        if (validation[0] <= 0) {
+            best = SmartPlayerConfig.DEFAULT;
+            System.out.println("No improvement over the default configuration, keeping it");
+        }
+        best.store(output, "Smart player configuration tuned by self-play (" + (ginMode ? "gin" : "classic") + ")");
+        System.out.println("Configuration written to " + output.toAbsolutePath());
+        return best;
+    }
+
+    // ===== Search distribution =====
+
+    private double[] sample(double[] mean, double[] deviation) {
+        double[] vector = new double[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = clamp(i, mean[i] + deviation[i] * random.nextGaussian());
+        }
+        return vector;
+    }
+
+    private void refit(double[] mean, double[] deviation, List<double[]> candidates, Integer[] ranking) {
+        for (int i = 0; i < DIMENSIONS; i++) {
+            if (deviation[i] == 0) continue;
+
+            double eliteMean = 0;
+            for (int e = 0; e < eliteCount; e++) {
+                eliteMean += candidates.get(ranking[e])[i];
+            }
+            eliteMean /= eliteCount;
+
+            double eliteVariance = 0;
+            for (int e = 0; e < eliteCount; e++) {
+                double d = candidates.get(ranking[e])[i] - eliteMean;
+                eliteVariance += d * d;
+            }
+            double eliteDeviation = Math.sqrt(eliteVariance / eliteCount);
+
+            mean[i] = SMOOTHING * eliteMean + (1 - SMOOTHING) * mean[i];
+            deviation[i] = Math.max(MINIMUM_DEVIATION, SMOOTHING * eliteDeviation + (1 - SMOOTHING) * deviation[i]);
+        }
+    }
+
+    private static double clamp(int dimension, double value) {
+        return Math.max(MINIMUM[dimension], Math.min(MAXIMUM[dimension], value));
+    }
+
+    private static double[] toVector(SmartPlayerConfig config) {
+        double[] vector = new double[DIMENSIONS];
+        for (int i = 0; i < KEEP_THRESHOLD; i++) {
+            vector[i] = config.getWeight(i);
+        }
+        vector[KEEP_THRESHOLD] = config.getKeepThreshold();
+        vector[KNOCK_THRESHOLD] = config.getKnockThreshold();
+        return vector;
+    }
+
+    private static SmartPlayerConfig toConfig(double[] vector) {
+        return new SmartPlayerConfig(Arrays.copyOf(vector, KEEP_THRESHOLD), vector[KEEP_THRESHOLD],
+                (int) Math.round(vector[KNOCK_THRESHOLD]));
+    }
+
+    // ===== Self-play =====
+
+    /**
+     * @return Mean points per round each candidate gains over the default player, on the given deals
+     */
+    private double[] evaluate(List<double[]> candidates, long[] dealSeeds)
+            throws InterruptedException, ExecutionException {
+        List<List<Future<Long>>> results = new ArrayList<>();
+        for (double[] candidate : candidates) {
+            SmartPlayerConfig config = toConfig(candidate);
+            List<Future<Long>> chunks = new ArrayList<>();
+            for (int start = 0; start < dealSeeds.length; start += CHUNK_SIZE) {
+                int from = start;
+                int to = Math.min(dealSeeds.length, start + CHUNK_SIZE);
+                chunks.add(executor.submit(() -> playDeals(config, dealSeeds, from, to)));
+            }
+            results.add(chunks);
+        }
+
+        double[] fitness = new double[candidates.size()];
+        for (int c = 0; c < candidates.size(); c++) {
+            long total = 0;
+            for (Future<Long> chunk : results.get(c)) {
+                total += chunk.get();
+            }
+            fitness[c] = total / (2.0 * dealSeeds.length);
+        }
+        return fitness;
+    }
+
+    /**
+     * Plays deals [from, to) from both seats
+     *
+     * @return Total points of the candidate minus those of the default player
+     */
+    private long playDeals(SmartPlayerConfig config, long[] dealSeeds, int from, int to) {
+        MaskSmartPolicy candidate = new MaskSmartPolicy(config);
+        MaskSmartPolicy baseline = new MaskSmartPolicy(SmartPlayerConfig.DEFAULT);
+        SimulatedRound round = new SimulatedRound(ginMode, SmartPlayerConfig.DEFAULT.getKnockThreshold());
+        int[] deck = new int[CardMasks.DECK_SIZE];
+        int[] noDiscards = new int[0];
+
+        long total = 0;
+        for (int d = from; d < to; d++) {
+            for (int candidateSeat = 0; candidateSeat < 2; candidateSeat++) {
+                deal(dealSeeds[d], deck);
+                long hand0 = 0;
+                long hand1 = 0;
+                for (int i = 0; i < handSize; i++) {
+                    hand0 |= CardMasks.bit(deck[CardMasks.DECK_SIZE - 1 - i]);
+                    hand1 |= CardMasks.bit(deck[CardMasks.DECK_SIZE - 1 - handSize - i]);
+                }
+                // Same deal from both seats: the candidate first holds hand 0 and moves first, then hand 1
+                round.reset(hand0, hand1, deck, CardMasks.DECK_SIZE - 2 * handSize, noDiscards, 0, 0, false);
+                round.setKnockThreshold(candidateSeat, config.getKnockThreshold());
+                round.setKnockThreshold(1 - candidateSeat, SmartPlayerConfig.DEFAULT.getKnockThreshold());
+                if (candidateSeat == 0) {
+                    round.playOut(candidate, baseline);
+                } else {
+                    round.playOut(baseline, candidate);
+                }
+                total += round.getPoints(candidateSeat) - round.getPoints(1 - candidateSeat);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Shuffles the deck for a deal seed (the last cards are dealt first)
+     */
+    private static void deal(long seed, int[] deck) {
+        Random dealRandom = new Random(seed);
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = dealRandom.nextInt(i + 1);
+            int tmp = deck[i];
+            deck[i] = deck[j];
+            deck[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Deck;
+import ch.aplu.jcardgame.Hand;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import rummy.DebugLog;
+import rummy.MeldDetector;
+import rummy.PropertiesLoader;
+import rummy.Rank;
+import rummy.Rummy;
+import rummy.Suit;
+import rummy.metrics.MetricsRegistry;
+import rummy.simulation.CardMasks;
+import rummy.smartcomputer.SmartComputerPlayer;
+
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bytes allocated per operation on the hot paths, measured with the per-thread allocation
+ * counter of the JVM, against the budgets in allocation-budgets.properties.
+ */
+public class TestAllocationBudget {
+    private static final int WARMUP = 2_000;
+    private static final int MEASURED = 2_000;
+    private static final long SEED = 30008;
+    private static final int GAME_WARMUP = 200;
+    private static final int GAMES_MEASURED = 200;
+    private static final String[] GAMES = {
+            "properties/test1.properties",
+            "properties/test2.properties",
+            "properties/test3.properties",
+            "properties/test4.properties",
+            "properties/test5.properties",
+    };
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Properties budgets;
+    private static Deck deck;
+    private static Hand[] hands;
+    private static Card[] drawnCards;
+    private static Hand[] handsWithDrawnCard;
+
+    @BeforeClass
+    public static void createHands() {
+        DebugLog.setEnabled(false);
+        MetricsRegistry.setEnabled(false);
+        budgets = PropertiesLoader.loadPropertiesFile("allocation-budgets.properties");
+        deck = new Deck(Suit.values(), Rank.values(), "cover");
+
+        Random random = new Random(SEED);
+        hands = new Hand[32];
+        drawnCards = new Card[hands.length];
+        handsWithDrawnCard = new Hand[hands.length];
+        int[] cards = new int[CardMasks.DECK_SIZE];
+        for (int h = 0; h < hands.length; h++) {
+            shuffle(cards, random);
+            int handSize = h % 2 == 0 ? 10 : 13;
+            hands[h] = new Hand(deck);
+            handsWithDrawnCard[h] = new Hand(deck);
+            for (int i = 0; i < handSize; i++) {
+                hands[h].insert(card(cards[i]), false);
+                handsWithDrawnCard[h].insert(card(cards[i]), false);
+            }
+            drawnCards[h] = card(cards[handSize]);
+            handsWithDrawnCard[h].insert(card(cards[handSize]), false);
+        }
+    }
+
+    @Test
+    public void testMeldAnalysisBudget() {
+        double bytes = bytesPerOperation(i -> MeldDetector.findBestMelds(hands[i % hands.length]));
+        assertWithinBudget("meld_analysis", bytes);
+    }
+
+    @Test
+    public void testSmartDecisionBudget() {
+        SmartComputerPlayer player = new SmartComputerPlayer(deck, new Properties());
+        double bytes = bytesPerOperation(i -> {
+            int h = i % hands.length;
+            player.shouldKeepCard(drawnCards[h], hands[h]);
+            player.selectCardToDiscard(handsWithDrawnCard[h], deck);
+        });
+        assertWithinBudget("smart_decision", bytes);
+    }
+
+    @Test
+    public void testHeadlessTurnBudget() {
+        // One operation is a whole headless game; the budget is per turn played, round setup and
+        // scoring included. Building the table (deck and players) is not measured.
+        long bytes = 0;
+        long turns = 0;
+        for (int i = 0; i < GAME_WARMUP + GAMES_MEASURED; i++) {
+            Properties properties = PropertiesLoader.loadPropertiesFile(GAMES[i % GAMES.length]);
+            properties.setProperty("headless", "true");
+            Rummy table = new Rummy(properties);
+
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            String log = table.runApp();
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+            if (i >= GAME_WARMUP) {
+                bytes += allocated;
+                turns += countTurns(log);
+            }
+        }
+        assertWithinBudget("headless_turn", (double) bytes / turns);
+    }
+
+    /**
+     * @return Number of moves in the Turn lines of a game log
+     */
+    private static int countTurns(String log) {
+        int turns = 0;
+        for (String line : log.split("\n")) {
+            if (!line.startsWith("Turn")) continue;
+            for (String move : line.substring(line.indexOf(':') + 1).split(",")) {
+                if (!move.isEmpty()) turns++;
+            }
+        }
+        return turns;
+    }
+
+    private interface Operation {
+        void run(int iteration);
+    }
+
+    /**
+     * @return Bytes the current thread allocated per operation, after a warm-up
+     */
+    private static double bytesPerOperation(Operation operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run(i);
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED; i++) {
+            operation.run(i);
+        }
+        long after = THREADS.getCurrentThreadAllocatedBytes();
+        return (double) (after - before) / MEASURED;
+    }
+
+    private static void assertWithinBudget(String operation, double bytes) {
+        long budget = Long.parseLong(budgets.getProperty(operation));
+        System.out.printf("Allocation %s: %.0f bytes/op (budget %d)%n", operation, bytes, budget);
+        assertTrue(String.format("%s allocates %.0f bytes per operation, over its budget of %d", operation, bytes,
+                budget), bytes <= budget);
+    }
+
+    private static Card card(int index) {
+        return new Card(deck, CardMasks.suit(index), CardMasks.rank(index));
+    }
+
+    private static void shuffle(int[] cards, Random random) {
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i;
+        }
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+}
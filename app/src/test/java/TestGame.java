@@ -9,8 +9,12 @@ import static org.junit.Assert.assertTrue;
 
 public class TestGame {
 
-    private String runningGame(String propertiesFile) {
+    protected String runningGame(String propertiesFile) {
         final Properties properties = PropertiesLoader.loadPropertiesFile(propertiesFile);
+        return runningGame(properties);
+    }
+
+    protected String runningGame(Properties properties) {
         String logResult = new Rummy(properties).runApp();
         return logResult;
     }
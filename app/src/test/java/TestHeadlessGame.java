@@ -0,0 +1,16 @@
+import rummy.PropertiesLoader;
+
+import java.util.Properties;
+
+/**
+ * Plays the TestGame scenarios on headless tables, which must log the same games
+ */
+public class TestHeadlessGame extends TestGame {
+
+    @Override
+    protected String runningGame(String propertiesFile) {
+        final Properties properties = PropertiesLoader.loadPropertiesFile(propertiesFile);
+        properties.setProperty("headless", "true");
+        return runningGame(properties);
+    }
+}
@@ -0,0 +1,82 @@
+package rummy.scenario;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestJsonParser {
+
+    @Test
+    public void testEscapes() {
+        assertEquals("a\"b\\c/d\ne\tf\rg\bh\fi", JsonParser.parse("\"a\\\"b\\\\c\\/d\\ne\\tf\\rg\\bh\\fi\""));
+    }
+
+    @Test
+    public void testUnicodeEscapes() {
+        assertEquals("\u00e9A\u2660", JsonParser.parse("\"\\u00e9\\u0041\\u2660\""));
+        assertError("\"\\u00zz\"", "Bad unicode escape at column 6");
+        assertError("\"\\u12", "Bad unicode escape at column 4");
+    }
+
+    @Test
+    public void testNesting() {
+        Object json = JsonParser.parse(" {\"a\": [1, {\"b\": [true, false, null]}], \"c\": {}, \"d\": []} ");
+        Map<?, ?> object = (Map<?, ?>) json;
+        List<?> a = (List<?>) object.get("a");
+        assertEquals(1.0, a.get(0));
+        List<?> b = (List<?>) ((Map<?, ?>) a.get(1)).get("b");
+        assertEquals(Arrays.asList(true, false, null), b);
+        assertTrue(((Map<?, ?>) object.get("c")).isEmpty());
+        assertTrue(((List<?>) object.get("d")).isEmpty());
+        assertEquals(List.of("a", "c", "d"), List.copyOf(object.keySet()));
+    }
+
+    @Test
+    public void testNumbers() {
+        assertEquals(0.0, JsonParser.parse("0"));
+        assertEquals(-1250.0, JsonParser.parse("-12.5e2"));
+        assertEquals(0.25, JsonParser.parse("2.5E-1"));
+        assertError("[1, 1.2.3]", "Bad number at column 5");
+    }
+
+    @Test
+    public void testLiterals() {
+        assertEquals(Boolean.TRUE, JsonParser.parse("true"));
+        assertNull(JsonParser.parse("null"));
+        assertError("nul", "Expected null at column 1");
+    }
+
+    @Test
+    public void testErrorColumns() {
+        assertError("{\"a\" 1}", "Expected ':' at column 6");
+        assertError("{\"a\": 1", "Expected '}' at column 8");
+        assertError("[1 2]", "Expected ']' at column 4");
+        assertError("{1: 2}", "Expected a key at column 2");
+        assertError("\"open", "Unterminated string at column 6");
+        assertError("", "Unexpected end of input at column 1");
+        assertError("[#]", "Unexpected character '#' at column 2");
+    }
+
+    @Test
+    public void testTrailingJunk() {
+        assertError("{} x", "Unexpected trailing characters at column 4");
+        assertError("1 2", "Unexpected trailing characters at column 3");
+        assertEquals(List.of(), JsonParser.parse("[]  \t"));
+    }
+
+    private static void assertError(String json, String message) {
+        try {
+            JsonParser.parse(json);
+            fail("Parsed invalid JSON " + json);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package rummy.scenario;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rummy.PropertiesLoader;
+import rummy.metrics.TableStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestScenarioRunner {
+    private static final String GAME = "properties/test1.properties";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 90000)
+    public void testDirectoryWithPassingFailingAndMalformedScenarios() throws IOException, InterruptedException {
+        Path directory = folder.getRoot().toPath();
+        writeScenario(directory.resolve("pass.properties"), "Game End:P1");
+        writeScenario(directory.resolve("fail.properties"), "Game End:P0");
+        Files.writeString(directory.resolve("malformed.properties"), "mode=classic\nbroken=\\uZZZZ\n");
+        // A headless table whose script runs out stops with an exception in the middle of the game
+        Properties stuck = PropertiesLoader.loadPropertiesFile(GAME);
+        stuck.setProperty("headless", "true");
+        stuck.setProperty("rounds.0.players.1.cardsPlayed", "STOCKPILE-12S");
+        writeProperties(directory.resolve("stuck.properties"), stuck);
+
+        ScenarioRunner.Summary summary = run(directory);
+
+        List<ScenarioResult> results = summary.getResults();
+        assertEquals(4, results.size());
+        assertEquals("fail.properties", results.get(0).getName());
+        assertEquals(ScenarioResult.Status.FAILED, results.get(0).getStatus());
+        assertEquals(List.of("Game End:P0"), results.get(0).getMissingFragments());
+        assertEquals("malformed.properties", results.get(1).getName());
+        assertEquals(ScenarioResult.Status.ERROR, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().contains("Malformed"));
+        assertEquals("pass.properties", results.get(2).getName());
+        assertEquals(ScenarioResult.Status.PASSED, results.get(2).getStatus());
+        assertEquals("stuck.properties", results.get(3).getName());
+        assertEquals(ScenarioResult.Status.ERROR, results.get(3).getStatus());
+        assertTrue(results.get(3).getError(), results.get(3).getError().contains("no scripted move left"));
+        assertFalse(summary.isSuccessful());
+        assertEquals(List.of(), TableStatus.getActiveTables());
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        summary.print(new PrintStream(report));
+        String text = report.toString();
+        assertTrue(text, text.startsWith("Scenarios: 4 run, 1 passed, 1 failed, 2 errors"));
+        assertTrue(text, text.contains("FAILED fail.properties\n  missing: Game End:P0"));
+        assertTrue(text, text.contains("ERROR  malformed.properties: "));
+    }
+
+    @Test(timeout = 90000)
+    public void testBundleLineThatDoesNotParse() throws IOException, InterruptedException {
+        Properties game = PropertiesLoader.loadPropertiesFile(GAME);
+        String properties = game.stringPropertyNames().stream().sorted()
+                .map(key -> "\"" + key + "\": \"" + game.getProperty(key) + "\"")
+                .collect(Collectors.joining(", "));
+        Path bundle = folder.getRoot().toPath().resolve("bundle.jsonl");
+        Files.writeString(bundle, "{\"name\": \"good\", \"properties\": {" + properties + "}, "
+                + "\"expected\": [\"Round0 End:P0-0,P1-103\"]}\n"
+                + "\n"
+                + "{\"name\": \"bad\", \"properties\": {\"mode\": }\n");
+
+        List<Scenario> scenarios;
+        try (Stream<Scenario> stream = ScenarioSource.open(bundle)) {
+            scenarios = stream.toList();
+        }
+        assertEquals(2, scenarios.size());
+        assertNull(scenarios.get(0).getLoadError());
+        assertEquals("bundle.jsonl:3", scenarios.get(1).getName());
+        assertNotNull(scenarios.get(1).getLoadError());
+        assertEquals("bundle.jsonl:3: Unexpected character '}' at column 40",
+                scenarios.get(1).getLoadError().getMessage());
+
+        ScenarioRunner.Summary summary = run(bundle);
+        assertEquals(1, summary.count(ScenarioResult.Status.PASSED));
+        assertEquals(1, summary.count(ScenarioResult.Status.ERROR));
+        assertEquals(List.of(), TableStatus.getActiveTables());
+    }
+
+    private void writeScenario(Path file, String expected) throws IOException {
+        Properties properties = PropertiesLoader.loadPropertiesFile(GAME);
+        properties.setProperty("expected.0", expected);
+        writeProperties(file, properties);
+    }
+
+    private static void writeProperties(Path file, Properties properties) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, null);
+        }
+    }
+
+    private static ScenarioRunner.Summary run(Path path) throws InterruptedException {
+        Properties runner = new Properties();
+        runner.setProperty("scenarios.threads", "2");
+        try (Stream<Scenario> scenarios = ScenarioSource.open(path)) {
+            return new ScenarioRunner(runner).run(scenarios);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package rummy.simulation;
+
+import org.junit.Test;
+import rummy.Suit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestLayoffCalculator {
+    // The knocker's set of queens, next to the run under test
+    private static final String QUEENS = "12S,12D,12C";
+
+    @Test
+    public void testSetCompletion() {
+        assertLayoff("7C", "7S,7H,7D,2C,3C,4C", "7C,10H,13D");
+        assertEquals(20, LayoffCalculator.deadwoodAfterLayoff(mask("7S,7H,7D,2C,3C,4C"), mask("7C,10H,13D")));
+    }
+
+    @Test
+    public void testRunExtensionAtBothEnds() {
+        assertLayoff("4H,8H", "5H,6H,7H," + QUEENS, "4H,8H,1C");
+    }
+
+    @Test
+    public void testChainedExtension() {
+        assertLayoff("3H,4H,8H,9H", "5H,6H,7H," + QUEENS, "3H,4H,8H,9H,10S");
+    }
+
+    @Test
+    public void testAceAndKingBoundaries() {
+        // An ace extends a run downwards, but is never the card after a king
+        assertLayoff("1D", "2D,3D,4D," + QUEENS, "1D");
+        assertLayoff("10S", "11S,12S,13S,7H,7D,7C", "10S,1H");
+        // A king is never the card before an ace
+        assertLayoff("4H", "1H,2H,3H," + QUEENS, "4H,13S");
+    }
+
+    @Test
+    public void testMeldedCardIsNotLaidOff() {
+        // 6H would extend the run, but breaking the defender's set of sixes costs more than it saves
+        assertLayoff("", "3H,4H,5H," + QUEENS, "6H,6S,6D,9C,13C");
+    }
+
+    @Test
+    public void testAmbiguousArrangementUsesRuns() {
+        long melded = mask("1S,2S,3S,1H,2H,3H,1D,2D,3D");
+        assertEquals(melded, LayoffCalculator.runCards(melded));
+        // Arranged as three runs, so 4S extends a run and the fourth ace completes no set
+        assertLayoff("4S", "1S,2S,3S,1H,2H,3H,1D,2D,3D", "4S,1C");
+    }
+
+    @Test
+    public void testRunCardsSplitsRunsFromSets() {
+        assertEquals(mask("2C,3C,4C"), LayoffCalculator.runCards(mask("7S,7H,7D,2C,3C,4C")));
+        assertEquals(-1, LayoffCalculator.runCards(mask("1S,2S,4S")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKnockerCardsThatAreNotMelds() {
+        LayoffCalculator.bestLayoff(mask("1S,2S,4S"), mask("3S"));
+    }
+
+    private static void assertLayoff(String expected, String knockerMelded, String defenderHand) {
+        assertEquals(CardMasks.toString(mask(expected)),
+                CardMasks.toString(LayoffCalculator.bestLayoff(mask(knockerMelded), mask(defenderHand))));
+    }
+
+    /**
+     * @param cards Cards in the game's log format, e.g. "12S,1H"
+     */
+    private static long mask(String cards) {
+        long mask = 0;
+        for (String card : cards.split(",")) {
+            if (card.isEmpty()) continue;
+            int rank = Integer.parseInt(card.substring(0, card.length() - 1));
+            String suitShortHand = card.substring(card.length() - 1);
+            for (Suit suit : Suit.values()) {
+                if (suit.getSuitShortHand().equals(suitShortHand)) {
+                    mask |= CardMasks.bit(suit.ordinal() * CardMasks.RANKS + rank - 1);
+                }
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,53 @@
+package rummy.benchmark;
+
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Deck;
+import ch.aplu.jcardgame.Hand;
+import rummy.Rank;
+import rummy.Suit;
+import rummy.simulation.CardMasks;
+
+/**
+ * Builds cards and hands for the benchmark corpora.
+ */
+final class BenchmarkCards {
+    private BenchmarkCards() {
+    }
+
+    static Card card(Deck deck, int index) {
+        return new Card(deck, CardMasks.suit(index), CardMasks.rank(index));
+    }
+
+    /**
+     * @param card Card in the game log format (e.g. "12S")
+     */
+    static Card card(Deck deck, String card) {
+        return card(deck, index(card));
+    }
+
+    static Hand hand(Deck deck, String... cards) {
+        Hand hand = new Hand(deck);
+        for (String card : cards) {
+            hand.insert(card(deck, card), false);
+        }
+        return hand;
+    }
+
+    /**
+     * @return Card index of a card in the game log format
+     */
+    static int index(String card) {
+        int rankValue = Integer.parseInt(card.substring(0, card.length() - 1));
+        String suitShortHand = card.substring(card.length() - 1);
+        for (Suit suit : Suit.values()) {
+            if (suit.getSuitShortHand().equals(suitShortHand)) {
+                for (Rank rank : Rank.values()) {
+                    if (rank.getShortHandValue() == rankValue) {
+                        return CardMasks.index(suit, rank);
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a card: " + card);
+    }
+}
@@ -0,0 +1,69 @@
+package rummy.benchmark;
+
+import ch.aplu.jcardgame.Deck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rummy.DebugLog;
+import rummy.Rank;
+import rummy.Suit;
+import rummy.smartcomputer.CardEvaluationStrategy;
+import rummy.smartcomputer.DeadwoodRankCountStrategy;
+import rummy.smartcomputer.ImmediateMeldStrategy;
+import rummy.smartcomputer.MaximumSuitCountStrategy;
+import rummy.smartcomputer.MinimumRankGapStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of each keep criterion on its own, on the DecisionCorpus positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardEvaluationStrategyBenchmark {
+
+    @Param({"IMMEDIATE_MELD", "MINIMUM_RANK_GAP", "MAXIMUM_SUIT_COUNT", "DEADWOOD_RANK_COUNT"})
+    public String criterion;
+
+    @Param({"TEST4", "TEST5", "GENERATED_10", "GENERATED_13"})
+    public DecisionCorpus corpus;
+
+    private Deck deck;
+    private CardEvaluationStrategy strategy;
+    private DecisionCorpus.Position[] positions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createStrategy() {
+        DebugLog.setEnabled(false);
+        deck = new Deck(Suit.values(), Rank.values(), "cover");
+        strategy = switch (criterion) {
+            case "IMMEDIATE_MELD" -> new ImmediateMeldStrategy();
+            case "MINIMUM_RANK_GAP" -> new MinimumRankGapStrategy();
+            case "MAXIMUM_SUIT_COUNT" -> new MaximumSuitCountStrategy();
+            case "DEADWOOD_RANK_COUNT" -> new DeadwoodRankCountStrategy();
+            default -> throw new IllegalArgumentException("Unknown criterion: " + criterion);
+        };
+        positions = corpus.createPositions(deck);
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        DecisionCorpus.Position position = positions[next];
+        next = next + 1 == positions.length ? 0 : next + 1;
+        return strategy.evaluate(position.drawnCard, position.hand, deck);
+    }
+}
@@ -0,0 +1,109 @@
+package rummy.benchmark;
+
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Deck;
+import ch.aplu.jcardgame.Hand;
+import rummy.PropertiesLoader;
+import rummy.simulation.CardMasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Decision points the smart player benchmarks run on: a hand and the card just drawn onto it.
+ * The scripted corpora take every dealt hand of the test4/test5 games with the first stockpile
+ * card of its round; the generated corpora are seeded random deals.
+ */
+public enum DecisionCorpus {
+    /** Classic positions of properties/test4.properties */
+    TEST4("properties/test4.properties", 0),
+    /** Gin positions of properties/test5.properties */
+    TEST5("properties/test5.properties", 0),
+    /** Random 10-card hands with a random drawn card */
+    GENERATED_10(null, 10),
+    /** Random 13-card hands with a random drawn card */
+    GENERATED_13(null, 13);
+
+    /** Number of generated positions cycled through */
+    public static final int GENERATED_POSITIONS = 64;
+    private static final long SEED = 30008;
+
+    private final String propertiesFile;
+    private final int handSize;
+
+    DecisionCorpus(String propertiesFile, int handSize) {
+        this.propertiesFile = propertiesFile;
+        this.handSize = handSize;
+    }
+
+    /**
+     * One decision point
+     */
+    public static final class Position {
+        /** Hand before the draw */
+        public final Hand hand;
+        /** The drawn card */
+        public final Card drawnCard;
+        /** Hand after the draw, from which a card is discarded */
+        public final Hand handWithDrawnCard;
+
+        Position(Deck deck, List<Card> cards, Card drawnCard) {
+            this.hand = new Hand(deck);
+            this.handWithDrawnCard = new Hand(deck);
+            for (Card card : cards) {
+                hand.insert(card, false);
+                handWithDrawnCard.insert(BenchmarkCards.card(deck, CardMasks.index(card)), false);
+            }
+            this.drawnCard = drawnCard;
+            handWithDrawnCard.insert(BenchmarkCards.card(deck, CardMasks.index(drawnCard)), false);
+        }
+    }
+
+    public Position[] createPositions(Deck deck) {
+        return propertiesFile != null ? scriptedPositions(deck) : generatedPositions(deck);
+    }
+
+    private Position[] scriptedPositions(Deck deck) {
+        Properties properties = PropertiesLoader.loadPropertiesFile(propertiesFile);
+        List<Position> positions = new ArrayList<>();
+        for (int round = 0; properties.containsKey("rounds." + round + ".stockpile.cards"); round++) {
+            String stockTop = properties.getProperty("rounds." + round + ".stockpile.cards").split(",")[0];
+            for (int player = 0; ; player++) {
+                String dealt = properties.getProperty("rounds." + round + ".players." + player + ".initialcards");
+                if (dealt == null) break;
+                List<Card> cards = new ArrayList<>();
+                for (String card : dealt.split(",")) {
+                    cards.add(BenchmarkCards.card(deck, card));
+                }
+                positions.add(new Position(deck, cards, BenchmarkCards.card(deck, stockTop)));
+            }
+        }
+        return positions.toArray(new Position[0]);
+    }
+
+    private Position[] generatedPositions(Deck deck) {
+        Random random = new Random(SEED + handSize);
+        int[] indices = new int[CardMasks.DECK_SIZE];
+        Position[] positions = new Position[GENERATED_POSITIONS];
+        for (int p = 0; p < positions.length; p++) {
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            // The first handSize + 1 shuffled cards are the hand and the drawn card
+            for (int i = 0; i <= handSize; i++) {
+                int j = i + random.nextInt(indices.length - i);
+                int tmp = indices[i];
+                indices[i] = indices[j];
+                indices[j] = tmp;
+            }
+            List<Card> cards = new ArrayList<>();
+            for (int i = 0; i < handSize; i++) {
+                cards.add(BenchmarkCards.card(deck, indices[i]));
+            }
+            positions[p] = new Position(deck, cards, BenchmarkCards.card(deck, indices[handSize]));
+        }
+        return positions;
+    }
+}
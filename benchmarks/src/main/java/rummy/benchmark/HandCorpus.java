@@ -0,0 +1,67 @@
+package rummy.benchmark;
+
+import ch.aplu.jcardgame.Deck;
+import ch.aplu.jcardgame.Hand;
+import rummy.simulation.CardMasks;
+
+import java.util.Random;
+
+/**
+ * Hands the meld benchmarks run on.
+ * Fixed hands are written in the game log format (e.g. "12S"); random deals use a fixed seed so
+ * every run measures the same hands.
+ */
+public enum HandCorpus {
+    /** Gin hand with every card in a meld */
+    MELDED_10(false, "1S", "2S", "3S", "4S", "7H", "7D", "7C", "9D", "10D", "11D"),
+    /** Classic hand with every card in a meld */
+    MELDED_13(false, "2H", "3H", "4H", "8S", "8H", "8D", "8C", "13S", "13H", "13C", "9C", "10C", "11C"),
+    /** Four of a kind crossed with a short run in three suits: many overlapping candidate melds */
+    PATHOLOGICAL_10(false, "4S", "4H", "4D", "4C", "3S", "5S", "3H", "5H", "3D", "5D"),
+    /** Runs of 3-6 in three suits crossed with four sets: the worst case for meld search */
+    PATHOLOGICAL_13(false, "3S", "4S", "5S", "6S", "3H", "4H", "5H", "6H", "3D", "4D", "5D", "6D", "4C"),
+    /** Random 10-card deals */
+    RANDOM_10(true, "10"),
+    /** Random 13-card deals */
+    RANDOM_13(true, "13");
+
+    /** Number of different random deals cycled through */
+    public static final int RANDOM_DEALS = 64;
+    private static final long SEED = 30008;
+
+    private final boolean random;
+    private final String[] cards;
+
+    HandCorpus(boolean random, String... cards) {
+        this.random = random;
+        this.cards = cards;
+    }
+
+    /**
+     * @return The hands of this corpus (one for a fixed hand, RANDOM_DEALS for random deals)
+     */
+    public Hand[] createHands(Deck deck) {
+        if (!random) {
+            return new Hand[]{BenchmarkCards.hand(deck, cards)};
+        }
+
+        int handSize = Integer.parseInt(cards[0]);
+        Random rng = new Random(SEED + handSize);
+        int[] indices = new int[CardMasks.DECK_SIZE];
+        Hand[] hands = new Hand[RANDOM_DEALS];
+        for (int h = 0; h < hands.length; h++) {
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            hands[h] = new Hand(deck);
+            for (int i = 0; i < handSize; i++) {
+                int j = i + rng.nextInt(indices.length - i);
+                int tmp = indices[i];
+                indices[i] = indices[j];
+                indices[j] = tmp;
+                hands[h].insert(BenchmarkCards.card(deck, indices[i]), false);
+            }
+        }
+        return hands;
+    }
+}
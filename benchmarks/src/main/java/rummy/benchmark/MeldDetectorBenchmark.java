@@ -0,0 +1,84 @@
+package rummy.benchmark;
+
+import ch.aplu.jcardgame.Deck;
+import ch.aplu.jcardgame.Hand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rummy.DebugLog;
+import rummy.MeldDetector;
+import rummy.Rank;
+import rummy.Suit;
+import rummy.metrics.MetricsRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and average time of the MeldDetector entry points on the HandCorpus hands.
+ * Run through the jmh task, which adds the GC profiler for allocation rates. Debug output is
+ * switched off so printing is not measured.
+ * Each invocation analyzes the next hand of the corpus, so random deals are not a single
+ * hand the branch predictor can learn.
+ * The metrics parameter runs each case with the game loop metrics off and on, to keep the
+ * recording overhead of findBestMelds in check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeldDetectorBenchmark {
+
+    @Param({"MELDED_10", "MELDED_13", "PATHOLOGICAL_10", "PATHOLOGICAL_13", "RANDOM_10", "RANDOM_13"})
+    public HandCorpus corpus;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private Hand[] hands;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createHands() {
+        DebugLog.setEnabled(false);
+        MetricsRegistry.setEnabled(metrics);
+        Deck deck = new Deck(Suit.values(), Rank.values(), "cover");
+        hands = corpus.createHands(deck);
+    }
+
+    private Hand nextHand() {
+        Hand hand = hands[next];
+        next = next + 1 == hands.length ? 0 : next + 1;
+        return hand;
+    }
+
+    @Benchmark
+    public MeldDetector.MeldAnalysis findBestMelds() {
+        return MeldDetector.findBestMelds(nextHand());
+    }
+
+    @Benchmark
+    public boolean canDeclareRummy() {
+        return MeldDetector.canDeclareRummy(nextHand());
+    }
+
+    @Benchmark
+    public boolean canDeclareGin() {
+        return MeldDetector.canDeclareGin(nextHand());
+    }
+
+    @Benchmark
+    public int getDeadwoodValue() {
+        return MeldDetector.getDeadwoodValue(nextHand());
+    }
+}
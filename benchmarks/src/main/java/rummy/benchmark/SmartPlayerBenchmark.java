@@ -0,0 +1,88 @@
+package rummy.benchmark;
+
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Deck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rummy.DebugLog;
+import rummy.Rank;
+import rummy.Suit;
+import rummy.smartcomputer.CardEvaluator;
+import rummy.smartcomputer.DiscardSelector;
+import rummy.smartcomputer.OutsDiscardSelector;
+import rummy.smartcomputer.SmartComputerPlayer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the smart player's decisions on the DecisionCorpus positions.
+ * Sample-time mode reports per-decision percentiles (p50 to p99.99); debug output is switched off
+ * so the measurement is the decision itself.
+ * On GENERATED_13 the hand with the drawn card has 14 cards, the size a discard decision must
+ * handle in under a millisecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmartPlayerBenchmark {
+
+    @Param({"TEST4", "TEST5", "GENERATED_10", "GENERATED_13"})
+    public DecisionCorpus corpus;
+
+    private Deck deck;
+    private SmartComputerPlayer player;
+    private DiscardSelector discardSelector;
+    private OutsDiscardSelector outsDiscardSelector;
+    private DecisionCorpus.Position[] positions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createPlayer() {
+        DebugLog.setEnabled(false);
+        deck = new Deck(Suit.values(), Rank.values(), "cover");
+        player = new SmartComputerPlayer(deck);
+        discardSelector = new DiscardSelector(new CardEvaluator(deck));
+        outsDiscardSelector = new OutsDiscardSelector();
+        positions = corpus.createPositions(deck);
+    }
+
+    private DecisionCorpus.Position nextPosition() {
+        DecisionCorpus.Position position = positions[next];
+        next = next + 1 == positions.length ? 0 : next + 1;
+        return position;
+    }
+
+    @Benchmark
+    public boolean shouldKeepCard() {
+        DecisionCorpus.Position position = nextPosition();
+        return player.shouldKeepCard(position.drawnCard, position.hand);
+    }
+
+    @Benchmark
+    public Card selectCardToDiscard() {
+        return player.selectCardToDiscard(nextPosition().handWithDrawnCard, deck);
+    }
+
+    @Benchmark
+    public Card discardSelector() {
+        return discardSelector.selectCardToDiscard(nextPosition().handWithDrawnCard, deck);
+    }
+
+    @Benchmark
+    public Card outsDiscardSelector() {
+        return outsDiscardSelector.selectCardToDiscard(nextPosition().handWithDrawnCard, null);
+    }
+}